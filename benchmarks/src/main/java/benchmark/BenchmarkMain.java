@@ -0,0 +1,31 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH suites, writing results as JSON so runs can be compared between releases.
+ * Accepts the usual JMH command line options; without -rf/-rff the results go to
+ * jmh-result.json in the working directory.
+ * <p>
+ * Usage: {@code java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]}
+ */
+public class BenchmarkMain {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(builder.parent(cmdOptions).build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import chess.ChessGame;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.*;
+import server.websocket.ConnectionManager;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionManager.broadcast of a LOAD_GAME message to everyone watching a game,
+ * with sessions that accept and drop every message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadcastBenchmark {
+
+    private static final int GAME_ID = 1;
+    private static final int OTHER_GAMES = 50;
+
+    @Param({"2", "20", "200"})
+    public int viewers;
+
+    private ConnectionManager connections;
+    private LoadGameMessage message;
+
+    @Setup
+    public void setup() {
+        connections = new ConnectionManager();
+        for (int i = 0; i < viewers; i++) {
+            connections.add(GAME_ID, "viewer" + i, openSession());
+        }
+        // Connections for other games that broadcast has to skip past
+        for (int i = 0; i < OTHER_GAMES; i++) {
+            connections.add(GAME_ID + 1 + i, "other" + i, openSession());
+        }
+        message = new LoadGameMessage(ServerMessage.ServerMessageType.LOAD_GAME, new ChessGame());
+    }
+
+    @Benchmark
+    public void broadcastToEveryone() {
+        connections.broadcast(GAME_ID, "viewer0", message, ConnectionManager.BroadcastType.EVERYONE);
+    }
+
+    private static Session openSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(BroadcastBenchmark.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> null);
+        return (Session) Proxy.newProxyInstance(BroadcastBenchmark.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "BenchmarkSession";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation costs the server pays on every MAKE_MOVE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @State(Scope.Thread)
+    public static class Position {
+        // Opening, a busy middlegame (Kiwipete) and a sparse endgame
+        @Param({
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+        })
+        public String fen;
+
+        ChessGame game;
+        ChessPosition[] sideToMovePieces;
+        ChessMove firstMove;
+
+        @Setup
+        public void setup() {
+            game = Fen.toGame(fen);
+            sideToMovePieces = game.teamValidMoves(game.getTeamTurn()).stream()
+                    .map(ChessMove::getStartPosition)
+                    .distinct()
+                    .toArray(ChessPosition[]::new);
+            firstMove = game.teamValidMoves(game.getTeamTurn()).iterator().next();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Mated {
+        ChessGame game;
+
+        @Setup
+        public void setup() {
+            // Fool's mate: white is checkmated
+            game = Fen.toGame("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Position position, Blackhole blackhole) {
+        for (ChessPosition start : position.sideToMovePieces) {
+            blackhole.consume(position.game.validMoves(start));
+        }
+    }
+
+    @Benchmark
+    public void makeMove(Position position) throws InvalidMoveException {
+        position.game.makeMove(position.firstMove);
+        position.game.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(Position position) {
+        return position.game.isInCheckmate(position.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateWhenMated(Mated mated) {
+        return mated.game.isInCheckmate(mated.game.getTeamTurn());
+    }
+}
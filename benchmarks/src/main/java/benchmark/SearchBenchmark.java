@@ -0,0 +1,60 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reach a fixed depth with the Lazy SMP search, by thread count. The
+ * threads=1 run is the single-threaded baseline for the speedup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"7"})
+    public int depth;
+
+    // Kiwipete: a busy middlegame with every kind of move
+    @Param({"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"})
+    public String fen;
+
+    private ChessGame game;
+    private TranspositionTable table;
+    private ParallelSearch search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = Fen.toGame(fen);
+        table = new TranspositionTable(64);
+        search = new ParallelSearch(threads, table);
+    }
+
+    // Each measured search starts from an empty table, or later ones would just read back the first
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        return search.search(game, SearchLimits.depth(depth));
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Gson round trip MySQLGameDAO does for game_data on every getGame and updateGame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String gameJson;
+
+    @Setup
+    public void setup() {
+        game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        gameJson = gson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+}
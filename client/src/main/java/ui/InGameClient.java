@@ -71,6 +71,10 @@ public class InGameClient {
         Game game = repl.getGame();
         ChessGame myGame = game.game();
         LOGGER.info("ChessGame: " + myGame);
+        if (myGame == null) {
+            // The game list has no board; it comes with the first LOAD_GAME
+            return "No active game board found.";
+        }
 
         ChessBoard board = myGame.getBoard();
         LOGGER.info("ChessBoard: " + board);
@@ -108,6 +112,9 @@ public class InGameClient {
 
             Game game = repl.getGame();
             ChessGame myGame = game.game();
+            if (myGame == null) {
+                return "No active game board found.";
+            }
             Collection<ChessMove> legalMoves = myGame.validMoves(evalPosition);
             ChessBoard board = myGame.getBoard();
 
@@ -11,6 +11,8 @@ import java.util.logging.Logger;
 
 public class PostLoginClient {
     private static final Logger LOGGER = LoggerManager.getLogger(PostLoginClient.class.getName());
+    // Games shown per page by listgames
+    private static final int PAGE_SIZE = 20;
     private final String serverUrl;
     private final Repl repl;
     private final ServerFacade serverFacade;
@@ -84,20 +86,15 @@ public class PostLoginClient {
                 System.out.print("Enter Game Name: ");
                 gameName = scanner.nextLine();
 
-                // Validate the game name against existing games
-                var listOfGames = serverFacade.listGames(authToken);
-                gameNameExists = false;
-                for (var game : listOfGames) {
-                    if (game.gameName().equalsIgnoreCase(gameName)) {
-                        gameNameExists = true;
-                        System.out.println("Game name already exists. Please choose a different name.");
-                        break;
-                    }
-                }
-
                 if (gameName.isBlank()) {
                     System.out.println("Game name cannot be empty. Please try again.");
-                    gameNameExists = true;
+                    continue;
+                }
+
+                // Validate the game name against existing games
+                gameNameExists = serverFacade.findGameByName(gameName, authToken) != null;
+                if (gameNameExists) {
+                    System.out.println("Game name already exists. Please choose a different name.");
                 }
             }
 
@@ -114,21 +111,32 @@ public class PostLoginClient {
 
     private String listGames() {
         System.out.println("Attempting to list games...");
+        Scanner scanner = new Scanner(System.in);
         try {
-            // Retrieve the list of games
-            var listOfGames = serverFacade.listGames(repl.getAuthToken());
-            if (listOfGames == null || listOfGames.length == 0) {
+            // Retrieve the first page of games
+            var page = serverFacade.listGames(repl.getAuthToken(), null, PAGE_SIZE, false);
+            if (page.games().length == 0) {
                 return "No games found.";
             }
 
-            // Print the game names to the console
+            // Print the game names to the console, fetching each further page only if asked
             System.out.println("Games available:");
             int counter = 1;
-            for (var game : listOfGames) {
-                LOGGER.info("Game: " + game);
-                System.out.println(counter + " - " + game.gameName() + ", White User: "
-                        + game.whiteUsername() + ", Black User: " + game.blackUsername());
-                counter++;
+            while (true) {
+                for (var game : page.games()) {
+                    LOGGER.info("Game: " + game);
+                    System.out.println(counter + " - " + game.gameName() + ", White User: "
+                            + game.whiteUsername() + ", Black User: " + game.blackUsername());
+                    counter++;
+                }
+                if (page.nextAfter() == null) {
+                    break;
+                }
+                System.out.print("Show more games? (y/n): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    break;
+                }
+                page = serverFacade.listGames(repl.getAuthToken(), page.nextAfter(), PAGE_SIZE, false);
             }
 
             return "Games listed successfully.";
@@ -152,16 +160,13 @@ public class PostLoginClient {
 
             // Validate that the game exists in the database
             try {
-                var listOfGames = serverFacade.listGames(repl.getAuthToken());
-                for (var game : listOfGames) {
-                    if (game.gameName().equalsIgnoreCase(gameName)) {
-                        gameExists = true;
-                        gameID = game.gameID();
-                        repl.setGame(game);
-                        var myGame = repl.getGame();
-                        LOGGER.info("myGame: " + myGame);
-                        break;
-                    }
+                var game = gameName.isBlank() ? null : serverFacade.findGameByName(gameName, repl.getAuthToken());
+                if (game != null) {
+                    gameExists = true;
+                    gameID = game.gameID();
+                    repl.setGame(game);
+                    var myGame = repl.getGame();
+                    LOGGER.info("myGame: " + myGame);
                 }
 
                 if (!gameExists) {
@@ -207,22 +212,15 @@ public class PostLoginClient {
             String authToken = repl.getAuthToken();
             serverFacade.joinGame(gameID, playerColor, authToken);
 
-            repl.getWebSocketHandler().connect(authToken, gameID);
-            if (playerColor.contains("black")) {
-                Game newGame = new Game(repl.getGame().gameID(),
-                        repl.getGame().whiteUsername(),
-                        repl.getUsername(),
-                        repl.getGame().gameName(),
-                        repl.getGame().game());
-                repl.setGame(newGame);
-            } else if (playerColor.contains("white")) {
-                Game newGame = new Game(repl.getGame().gameID(),
-                        repl.getUsername(),
-                        repl.getGame().blackUsername(),
-                        repl.getGame().gameName(),
-                        repl.getGame().game());
-                repl.setGame(newGame);
+            // Seated before connecting, so LOAD_GAME draws the board the right way up; only the
+            // players change, so a board that has already arrived is kept
+            Game joined = repl.getGame();
+            if (playerColor.equalsIgnoreCase("black")) {
+                repl.setPlayers(joined.whiteUsername(), repl.getUsername());
+            } else {
+                repl.setPlayers(repl.getUsername(), joined.blackUsername());
             }
+            repl.getWebSocketHandler().connect(authToken, gameID);
             repl.changeState(UserState.INGAME);
             return "Successfully joined the game '" + gameName + "' as " + playerColor + ".";
         } catch (ResponseException e) {
@@ -248,20 +246,14 @@ public class PostLoginClient {
 
             // Validate that the game exists in the database
             try {
-                var listOfGames = serverFacade.listGames(repl.getAuthToken());
-                var counter = 1;
-                for (var game : listOfGames) {
-                    LOGGER.info("Game " + counter + " from games list: " + game);
-                    if (game.gameName().equalsIgnoreCase(gameName)) {
-                        gameExists = true;
-                        gameID = game.gameID();
-                        repl.setGame(game);
-                        var myGame = repl.getGame();
-
-                        LOGGER.info("myGame: " + myGame);
-                        break;
-                    }
-                    counter++;
+                var game = gameName.isBlank() ? null : serverFacade.findGameByName(gameName, repl.getAuthToken());
+                if (game != null) {
+                    gameExists = true;
+                    gameID = game.gameID();
+                    repl.setGame(game);
+                    var myGame = repl.getGame();
+
+                    LOGGER.info("myGame: " + myGame);
                 }
 
                 if (!gameExists) {
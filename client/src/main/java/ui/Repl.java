@@ -93,12 +93,12 @@ public class Repl implements WebSocketListener {
         // Update the game state in Repl
 
         ChessGame newGame = loadGameMessage.getGame();
-        String whiteUsername = game.whiteUsername();
-        String blackUsername = game.blackUsername();
-        String gameName = game.gameName();
-        Integer gameID = game.gameID();
-
-        this.game = new Game(gameID, whiteUsername, blackUsername, gameName, newGame);
+        String blackUsername;
+        // Locked, as the main thread may set the players at the same time
+        synchronized (this) {
+            blackUsername = game.blackUsername();
+            this.game = new Game(game.gameID(), game.whiteUsername(), blackUsername, game.gameName(), newGame);
+        }
         printNotification("Game state updated!");
         // Call InGameClient to redraw the chessboard?
 
@@ -163,14 +163,21 @@ public class Repl implements WebSocketListener {
         return this.isObserver;
     }
 
-    public void setGame(Game game) {
+    public synchronized void setGame(Game game) {
         this.game = game;
     }
 
-    public Game getGame() {
+    public synchronized Game getGame() {
         return this.game;
     }
 
+    /**
+     * Changes who is seated, keeping the ChessGame, which may have arrived with LOAD_GAME
+     */
+    public synchronized void setPlayers(String whiteUsername, String blackUsername) {
+        this.game = new Game(game.gameID(), whiteUsername, blackUsername, game.gameName(), game.game());
+    }
+
     public WebSocketFacade getWebSocketHandler() {
         return this.webSocketFacade;
     }
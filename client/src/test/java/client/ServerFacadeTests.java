@@ -232,6 +232,36 @@ public class ServerFacadeTests {
                 "Expected ResponseException when listing games with an invalid auth token");
     }
 
+    @Test
+    @DisplayName("List Games - One Page At A Time")
+    public void testListGamesPaged() throws ResponseException {
+        Auth auth = facade.register(new User("paged_user", "password123", "paged@email.com"));
+        facade.createGame("game1", auth.authToken());
+        facade.createGame("game2", auth.authToken());
+        facade.createGame("game3", auth.authToken());
+
+        ServerFacade.GamePage first = facade.listGames(auth.authToken(), null, 2, false);
+        assertEquals(2, first.games().length, "The first page should hold the limit");
+        assertNotNull(first.nextAfter(), "There should be another page");
+
+        ServerFacade.GamePage second = facade.listGames(auth.authToken(), first.nextAfter(), 2, false);
+        assertEquals(1, second.games().length, "The last page should hold the rest");
+        assertNull(second.nextAfter(), "There should be no page after the last");
+    }
+
+    @Test
+    @DisplayName("Find Game By Name")
+    public void testFindGameByName() throws ResponseException {
+        Auth auth = facade.register(new User("find_user", "password123", "find@email.com"));
+        facade.createGame("other game", auth.authToken());
+        int gameID = facade.createGame("wanted game", auth.authToken());
+
+        Game game = facade.findGameByName("Wanted Game", auth.authToken());
+        assertNotNull(game, "The game should be found, ignoring case");
+        assertEquals(gameID, game.gameID());
+        assertNull(facade.findGameByName("missing game", auth.authToken()));
+    }
+
     @Test
     @DisplayName("Join Game - Positive Case")
     public void testJoinGamePositive() {
@@ -11,5 +11,7 @@ public class Main {
         var server = new Server();  // Create an instance of Server
         int actualPort = server.run(port);  // Call the run method on the instance
         System.out.println("Server is running on port: " + actualPort);
+        // Writes out games still held in memory when the process is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
     }
 }
\ No newline at end of file
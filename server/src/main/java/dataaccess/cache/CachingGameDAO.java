@@ -0,0 +1,308 @@
+package dataaccess.cache;
+
+import chess.ChessGame;
+import chess.MoveList;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameDAO;
+import logging.LoggerManager;
+import model.Game;
+import model.GameSummary;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * A GameDAO that keeps recently used games in memory in front of another GameDAO,
+ * so an active game is not read from and written to the database on every move.
+ * <p>
+ * Reads are served from memory when possible. With WRITE_BEHIND durability, updates
+ * go to memory and are marked dirty. A background flush then writes each dirty game
+ * once, however many times it changed since the last flush. A game that has just ended is
+ * written at once. close flushes everything that is left, so a clean shutdown loses
+ * nothing; a crash can lose up to one flush interval of moves. Changes to the players
+ * or name are written at once too, so listings from the underlying GameDAO are never
+ * behind. WRITE_THROUGH writes every update at once and only caches reads.
+ * <p>
+ * Games are copied going in and out, so callers can change what they get without
+ * changing the cached game another thread is reading.
+ */
+public class CachingGameDAO implements GameDAO, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(CachingGameDAO.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * When updates reach the underlying GameDAO
+     */
+    public enum Durability {
+        WRITE_THROUGH,
+        WRITE_BEHIND
+    }
+
+    private final GameDAO delegate;
+    private final Durability durability;
+    // Recently used games, eldest first; dirty games are also kept in dirty until written
+    private final Map<Integer, Game> cache;
+    private final Map<Integer, Game> dirty = new ConcurrentHashMap<>();
+    // One is held while a game is updated or written, so a flush cannot write an older version
+    // after a newer one; striped, so games sharing none do not wait for each other
+    private final Object[] gameLocks = new Object[LOCK_STRIPES];
+    // Shared by updates and flushes, taken alone by deleteAllGames so nothing is written back after it
+    private final ReadWriteLock deleteLock = new ReentrantReadWriteLock();
+    private final ScheduledThreadPoolExecutor flusher;
+
+    public CachingGameDAO(GameDAO delegate, Durability durability) {
+        this(delegate, durability, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param delegate            where games are stored
+     * @param durability          when updates are written to the delegate
+     * @param capacity            how many games to keep in memory
+     * @param flushIntervalMillis how often dirty games are written, for WRITE_BEHIND
+     */
+    public CachingGameDAO(GameDAO delegate, Durability durability, int capacity, long flushIntervalMillis) {
+        if (capacity < 1 || flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Cache capacity and flush interval must be positive");
+        }
+        this.delegate = delegate;
+        this.durability = durability;
+        for (int i = 0; i < gameLocks.length; i++) {
+            gameLocks[i] = new Object();
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Game> eldest) {
+                // Safe even if the game is dirty, as reads look in dirty first
+                return size() > capacity;
+            }
+        };
+
+        if (durability == Durability.WRITE_BEHIND) {
+            flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "game-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    @Override
+    public Game createGame(Game game) throws DataAccessException {
+        // Written at once, as the database assigns the ID
+        Game created = delegate.createGame(game);
+        remember(created);
+        return copy(created);
+    }
+
+    @Override
+    public Game getGame(int gameID) throws DataAccessException {
+        Game game = cached(gameID);
+        if (game == null) {
+            game = load(gameID);
+            if (game == null) {
+                return null;
+            }
+        }
+        return copy(game);
+    }
+
+    @Override
+    public void updateGame(Game game) throws DataAccessException {
+        Game stored = copy(game);
+        deleteLock.readLock().lock();
+        try {
+            synchronized (lockFor(game.gameID())) {
+                if (durability == Durability.WRITE_THROUGH || !sameSeats(stored, cached(game.gameID())) || isOver(stored.game())) {
+                    delegate.updateGame(stored);
+                    // Nothing newer can be dirty, as updates to this game hold the same lock
+                    dirty.remove(game.gameID());
+                } else {
+                    dirty.put(game.gameID(), stored);
+                }
+                remember(stored);
+            }
+        } finally {
+            deleteLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Game> listGames() throws DataAccessException {
+        // Stored games, with any changes not yet written laid over them
+        Map<Integer, Game> games = new LinkedHashMap<>();
+        for (Game game : delegate.listGames()) {
+            games.put(game.gameID(), game);
+        }
+        for (Game game : dirty.values()) {
+            games.put(game.gameID(), copy(game));
+        }
+        return games.values();
+    }
+
+    @Override
+    public List<GameSummary> listGameSummaries(int afterGameID, int limit, boolean openSeatsOnly) throws DataAccessException {
+        // Exact, as only moves are held back and summaries leave them out
+        return delegate.listGameSummaries(afterGameID, limit, openSeatsOnly);
+    }
+
+    @Override
+    public List<GameSummary> findGameSummaries(String gameName) throws DataAccessException {
+        // Exact, as name changes are written at once
+        return delegate.findGameSummaries(gameName);
+    }
+
+    @Override
+    public void deleteAllGames() throws DataAccessException {
+        deleteLock.writeLock().lock();
+        try {
+            dirty.clear();
+            synchronized (cache) {
+                cache.clear();
+            }
+            delegate.deleteAllGames();
+        } finally {
+            deleteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty game to the underlying GameDAO
+     *
+     * @throws DataAccessException if a game could not be written; it stays dirty for the next flush
+     */
+    public void flush() throws DataAccessException {
+        DataAccessException failure = null;
+        for (Integer gameID : dirty.keySet()) {
+            deleteLock.readLock().lock();
+            try {
+                synchronized (lockFor(gameID)) {
+                    // Null if written through or deleted since the loop began
+                    Game game = dirty.get(gameID);
+                    if (game == null) {
+                        continue;
+                    }
+                    delegate.updateGame(game);
+                    dirty.remove(gameID, game);
+                }
+            } catch (DataAccessException e) {
+                failure = e;
+            } finally {
+                deleteLock.readLock().unlock();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return how many games have changes not yet written
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Stops the background flush and writes what is left
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            LOGGER.warning("Could not write " + dirty.size() + " games, will retry: " + e.getMessage());
+        }
+    }
+
+    // Loads a game under its lock, so an older row read here cannot replace a newer update
+    private Game load(int gameID) throws DataAccessException {
+        deleteLock.readLock().lock();
+        try {
+            synchronized (lockFor(gameID)) {
+                Game game = cached(gameID);
+                if (game == null) {
+                    game = delegate.getGame(gameID);
+                    if (game != null) {
+                        remember(game);
+                    }
+                }
+                return game;
+            }
+        } finally {
+            deleteLock.readLock().unlock();
+        }
+    }
+
+    private Object lockFor(int gameID) {
+        return gameLocks[Math.floorMod(gameID, gameLocks.length)];
+    }
+
+    // The latest version held in memory, or null
+    private Game cached(int gameID) {
+        Game game = dirty.get(gameID);
+        if (game == null) {
+            synchronized (cache) {
+                game = cache.get(gameID);
+            }
+        }
+        return game;
+    }
+
+    private static boolean sameSeats(Game game, Game previous) {
+        return previous != null && Objects.equals(game.whiteUsername(), previous.whiteUsername())
+                && Objects.equals(game.blackUsername(), previous.blackUsername())
+                && Objects.equals(game.gameName(), previous.gameName());
+    }
+
+    private void remember(Game game) {
+        synchronized (cache) {
+            cache.put(game.gameID(), game);
+        }
+    }
+
+    private static Game copy(Game game) {
+        return new Game(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                game.game() == null ? null : new ChessGame(game.game()));
+    }
+
+    // Resigned, or the side to move is mated or stalemated
+    private static boolean isOver(ChessGame game) {
+        if (game == null) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(game.getGameIsOver())) {
+            return true;
+        }
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        return moves.isEmpty();
+    }
+}
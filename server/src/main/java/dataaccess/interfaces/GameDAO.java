@@ -1,9 +1,11 @@
 package dataaccess.interfaces;
 
 import model.Game;
+import model.GameSummary;
 import dataaccess.DataAccessException;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface GameDAO {
 
@@ -15,5 +17,22 @@ public interface GameDAO {
 
     Collection<Game> listGames() throws DataAccessException;
 
+    /**
+     * Lists games without loading them, a page at a time in order of game ID
+     *
+     * @param afterGameID   only games with a greater ID, so 0 for the first page and the last ID seen for the next
+     * @param limit         the most games to return
+     * @param openSeatsOnly only games with a seat free
+     */
+    List<GameSummary> listGameSummaries(int afterGameID, int limit, boolean openSeatsOnly) throws DataAccessException;
+
+    /**
+     * Finds games by name without loading them
+     *
+     * @param gameName the name, ignoring case
+     * @return the games with that name, in order of game ID
+     */
+    List<GameSummary> findGameSummaries(String gameName) throws DataAccessException;
+
     void deleteAllGames() throws DataAccessException;
 }
\ No newline at end of file
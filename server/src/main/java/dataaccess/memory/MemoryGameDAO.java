@@ -3,8 +3,10 @@ package dataaccess.memory;
 import dataaccess.DataAccessException;
 import dataaccess.interfaces.GameDAO;
 import model.Game;
+import model.GameSummary;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,26 @@ public class MemoryGameDAO implements GameDAO {
         return games.values();
     }
 
+    @Override
+    public List<GameSummary> listGameSummaries(int afterGameID, int limit, boolean openSeatsOnly) throws DataAccessException {
+        return games.values().stream()
+                .filter(game -> game.gameID() > afterGameID)
+                .filter(game -> !openSeatsOnly || game.whiteUsername() == null || game.blackUsername() == null)
+                .sorted(Comparator.comparingInt(Game::gameID))
+                .limit(limit)
+                .map(game -> new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName()))
+                .toList();
+    }
+
+    @Override
+    public List<GameSummary> findGameSummaries(String gameName) throws DataAccessException {
+        return games.values().stream()
+                .filter(game -> gameName.equalsIgnoreCase(game.gameName()))
+                .sorted(Comparator.comparingInt(Game::gameID))
+                .map(game -> new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName()))
+                .toList();
+    }
+
     @Override
     public void deleteAllGames() throws DataAccessException {
         games.clear();
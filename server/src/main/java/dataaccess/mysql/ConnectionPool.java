@@ -0,0 +1,318 @@
+package dataaccess.mysql;
+
+import dataaccess.DataAccessException;
+import logging.LoggerManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of JDBC connections, so DAO calls reuse open connections instead of
+ * each paying for a TCP connect and login.
+ * <p>
+ * getConnection hands out a wrapper whose close returns the connection to the pool,
+ * so callers keep using try-with-resources as before. A caller waits up to the
+ * connection timeout when every connection is in use. Connections are:
+ * <ul>
+ *     <li>validated before reuse if they have sat idle for a while</li>
+ *     <li>retired once they reach their maximum lifetime, before the server or a
+ *     firewall drops them</li>
+ *     <li>reported as leaks, with the stack that borrowed them, when held longer than
+ *     the leak detection threshold</li>
+ * </ul>
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Opens a new physical connection
+     */
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * @param maxSize                 the most connections open at once
+     * @param connectionTimeoutMillis how long getConnection waits for a free connection
+     * @param maxLifetimeMillis       how long a connection is used before it is replaced
+     * @param validateAfterIdleMillis how long a connection may sit idle before it is checked on reuse
+     * @param leakThresholdMillis     how long a connection may be held before it is reported, or 0 for never
+     */
+    public record Settings(int maxSize, long connectionTimeoutMillis, long maxLifetimeMillis,
+                           long validateAfterIdleMillis, long leakThresholdMillis) {
+        public static final Settings DEFAULT = new Settings(10, 5_000, 30 * 60_000, 1_000, 30_000);
+
+        public Settings {
+            if (maxSize < 1 || connectionTimeoutMillis < 0 || maxLifetimeMillis < 1
+                    || validateAfterIdleMillis < 0 || leakThresholdMillis < 0) {
+                throw new IllegalArgumentException("Invalid connection pool settings");
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param open     physical connections open now
+     * @param active   connections handed out and not yet returned
+     * @param idle     connections waiting in the pool
+     * @param waiting  callers waiting for a connection
+     * @param borrowed connections handed out in total
+     * @param created  physical connections opened in total
+     * @param retired  physical connections closed for age, failed validation or errors
+     * @param timeouts callers that gave up waiting
+     * @param leaks    connections reported as leaked
+     */
+    public record Stats(int open, int active, int idle, int waiting, long borrowed, long created,
+                        long retired, long timeouts, long leaks) {
+    }
+
+    // A physical connection and when it was opened and last returned
+    private static final class Pooled {
+        final Connection connection;
+        final long createdAt;
+        long returnedAt;
+
+        Pooled(Connection connection, long now) {
+            this.connection = connection;
+            this.createdAt = now;
+            this.returnedAt = now;
+        }
+    }
+
+    // One loan of a connection, until the caller closes it
+    private final class Lease implements InvocationHandler {
+        final Pooled pooled;
+        final long borrowedAt = System.nanoTime();
+        final Exception borrowedFrom;
+        volatile boolean closed;
+        volatile boolean reported;
+
+        Lease(Pooled pooled) {
+            this.pooled = pooled;
+            this.borrowedFrom = settings.leakThresholdMillis() > 0 ? new Exception("Connection borrowed here") : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        giveBack(this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + pooled.connection;
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    try {
+                        return method.invoke(pooled.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    // Most recently returned first, so a few busy connections stay warm and the rest age out
+    private final LinkedBlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakDetector;
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        if (settings.leakThresholdMillis() > 0) {
+            ScheduledThreadPoolExecutor detector = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "connection-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(100, settings.leakThresholdMillis() / 2);
+            detector.scheduleWithFixedDelay(this::reportLeaks, interval, interval, TimeUnit.MILLISECONDS);
+            this.leakDetector = detector;
+        } else {
+            this.leakDetector = null;
+        }
+    }
+
+    /**
+     * Borrows a connection. Close it to give it back.
+     *
+     * @throws DataAccessException if none is free within the connection timeout, or a new one cannot be opened
+     */
+    public Connection getConnection() throws DataAccessException {
+        if (closed) {
+            throw new DataAccessException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.connectionTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new DataAccessException("Timed out after " + settings.connectionTimeoutMillis()
+                        + " ms waiting for a database connection; " + getStats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted waiting for a database connection");
+        }
+
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new Pooled(factory.create(), System.nanoTime());
+                created.incrementAndGet();
+            }
+            Lease lease = new Lease(pooled);
+            leases.add(lease);
+            borrowed.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, lease);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw new DataAccessException("Unable to open a database connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the pool's counters now
+     */
+    public Stats getStats() {
+        int active = leases.size();
+        int idleCount = idle.size();
+        return new Stats(active + idleCount, active, idleCount, permits.getQueueLength(), borrowed.get(),
+                created.get(), retired.get(), timeouts.get(), leaks.get());
+    }
+
+    /**
+     * Closes the idle connections and stops handing out new ones. Connections still
+     * in use are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            retire(pooled);
+        }
+    }
+
+    // The most recently returned idle connection still fit for use, or null
+    private Pooled takeIdle() {
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.nanoTime();
+            if (isExpired(pooled, now)) {
+                retire(pooled);
+                continue;
+            }
+            if (now - pooled.returnedAt >= TimeUnit.MILLISECONDS.toNanos(settings.validateAfterIdleMillis())
+                    && !isValid(pooled)) {
+                LOGGER.info("Dropping a pooled connection that failed validation");
+                retire(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private void giveBack(Lease lease) {
+        leases.remove(lease);
+        Pooled pooled = lease.pooled;
+        try {
+            if (closed || pooled.connection.isClosed() || isExpired(pooled, System.nanoTime())) {
+                retire(pooled);
+                return;
+            }
+            // Leave no open transaction behind for the next borrower
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            pooled.returnedAt = System.nanoTime();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            retire(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isExpired(Pooled pooled, long now) {
+        return now - pooled.createdAt >= TimeUnit.MILLISECONDS.toNanos(settings.maxLifetimeMillis());
+    }
+
+    private boolean isValid(Pooled pooled) {
+        try {
+            return pooled.connection.isValid((int) Math.max(1, settings.connectionTimeoutMillis() / 1000));
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void retire(Pooled pooled) {
+        retired.incrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            LOGGER.fine("Error closing a retired connection: " + e.getMessage());
+        }
+    }
+
+    private void reportLeaks() {
+        long threshold = TimeUnit.MILLISECONDS.toNanos(settings.leakThresholdMillis());
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            if (!lease.reported && now - lease.borrowedAt >= threshold) {
+                lease.reported = true;
+                leaks.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Possible connection leak: held for more than "
+                        + settings.leakThresholdMillis() + " ms", lease.borrowedFrom);
+            }
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final ConnectionPool.Settings POOL_SETTINGS;
+    private static volatile ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -29,6 +31,15 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+
+                // Optional pool settings; see ConnectionPool.Settings
+                var defaults = ConnectionPool.Settings.DEFAULT;
+                POOL_SETTINGS = new ConnectionPool.Settings(
+                        Integer.parseInt(props.getProperty("db.pool.maxSize", String.valueOf(defaults.maxSize()))),
+                        Long.parseLong(props.getProperty("db.pool.connectionTimeoutMs", String.valueOf(defaults.connectionTimeoutMillis()))),
+                        Long.parseLong(props.getProperty("db.pool.maxLifetimeMs", String.valueOf(defaults.maxLifetimeMillis()))),
+                        Long.parseLong(props.getProperty("db.pool.validateAfterIdleMs", String.valueOf(defaults.validateAfterIdleMillis()))),
+                        Long.parseLong(props.getProperty("db.pool.leakThresholdMs", String.valueOf(defaults.leakThresholdMillis()))));
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -41,8 +52,9 @@ public class DatabaseManager {
     static void createDatabase() throws DataAccessException {
         try {
             var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            // Not pooled, as pooled connections use the database this creates
+            try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -51,24 +63,56 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection to the database from the connection pool, with the catalog
+     * set from db.properties. Connections to the database should be short-lived, and
+     * you must close the connection when you are done with it, which returns it to the
+     * pool. The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
-     * try (var conn = DbInfo.getConnection(databaseName)) {
+     * try (var conn = DatabaseManager.getConnection()) {
      * // execute SQL statements.
      * }
      * </code>
      */
     public static Connection getConnection() throws DataAccessException {
-        try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
-        } catch (SQLException e) {
-            throw new DataAccessException(e.getMessage());
+        return getPool().getConnection();
+    }
+
+    /**
+     * @return the connection pool's counters, for monitoring
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /**
+     * Closes the pooled connections, for shutdown. The next getConnection starts a new pool.
+     */
+    public static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
+
+    // Made on first use, after the DAOs have had the chance to create the database
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(DatabaseManager::openConnection, POOL_SETTINGS);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        conn.setCatalog(DATABASE_NAME);
+        return conn;
+    }
 }
@@ -1,36 +1,76 @@
 package dataaccess.mysql;
 
 import chess.ChessGame;
+import chess.GameCodec;
+import chess.InvalidMoveException;
+import chess.PackedMove;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import dataaccess.DataAccessException;
 import dataaccess.interfaces.GameDAO;
 import logging.LoggerManager;
 import model.Game;
+import model.GameSummary;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Stores games in MySQL. Each games row holds a snapshot of the game, encoded by GameCodec
+ * in game_state, and the game_moves table holds the moves made after it, one row per ply. Reading a game loads
+ * the snapshot and replays the moves after it.
+ * <p>
+ * In SNAPSHOT storage, every update rewrites the snapshot and no moves are logged. In
+ * MOVE_LOG storage, an update appends only the moves made since the last update, a few
+ * bytes each. The snapshot is rewritten every SNAPSHOT_INTERVAL plies, so a read never
+ * replays more than that many moves, and when the game ends. Both modes read the same
+ * tables, so a server can switch between them.
+ * <p>
+ * Games used to be stored as JSON in a game_data column. On startup, any left are
+ * re-encoded into game_state, and startup fails, naming the game, if one cannot be read.
+ * game_data is then left as it was before the upgrade and no longer read or written, until
+ * dropJsonGames drops it.
+ */
 public class MySQLGameDAO implements GameDAO {
 
     private static final Logger LOGGER = LoggerManager.getLogger(MySQLGameDAO.class.getName());
+
+    public static final int SNAPSHOT_INTERVAL = 32;
+
+    /**
+     * How updates are written
+     */
+    public enum Storage {
+        SNAPSHOT,
+        MOVE_LOG
+    }
+
+    // Only for migrating rows written as JSON before game_state
     private final Gson gson = new Gson();
+    private final Storage storage;
 
     public MySQLGameDAO() throws DataAccessException {
-        LOGGER.info("Initializing MySQLGameDAO...");
+        this(Storage.SNAPSHOT);
+    }
+
+    public MySQLGameDAO(Storage storage) throws DataAccessException {
+        LOGGER.info("Initializing MySQLGameDAO with " + storage + " storage...");
+        this.storage = storage;
         configureDatabase();
     }
 
     @Override
     public Game createGame(Game game) throws DataAccessException {
         LOGGER.info("Creating game: " + game);
-        String statement = "INSERT INTO games (white_username, black_username, game_name, game_data) VALUES (?, ?, ?, ?)";
-        String gameDataJson = gson.toJson(game.game());
-        LOGGER.info("Serialized game data: " + gameDataJson);
-        int gameID = executeUpdate(statement, game.whiteUsername(), game.blackUsername(), game.gameName(), gameDataJson);
+        String statement = "INSERT INTO games (white_username, black_username, game_name, game_state, snapshot_ply) VALUES (?, ?, ?, ?, ?)";
+        int gameID = executeUpdate(statement, game.whiteUsername(), game.blackUsername(), game.gameName(), encode(game.game()),
+                plyCount(game.game()));
         LOGGER.info("Game created with ID: " + gameID);
 
         return new Game(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
@@ -39,7 +79,8 @@ public class MySQLGameDAO implements GameDAO {
     @Override
     public Game getGame(int gameID) throws DataAccessException {
         LOGGER.info("Fetching game with ID: " + gameID);
-        String statement = "SELECT gameID, white_username, black_username, game_name, game_data FROM games WHERE gameID = ?";
+        String statement = "SELECT gameID, white_username, black_username, game_name, game_state, snapshot_ply FROM games WHERE gameID = ?";
+        String movesQuery = "SELECT gameID, ply, packed_move FROM game_moves WHERE gameID = ? AND ply >= ? ORDER BY ply";
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(statement)) {
@@ -48,6 +89,15 @@ public class MySQLGameDAO implements GameDAO {
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     Game game = readGame(rs);
+                    try (PreparedStatement moves = conn.prepareStatement(movesQuery)) {
+                        moves.setInt(1, gameID);
+                        moves.setInt(2, rs.getInt("snapshot_ply"));
+                        try (ResultSet moveRows = moves.executeQuery()) {
+                            while (moveRows.next()) {
+                                replayMove(game, moveRows);
+                            }
+                        }
+                    }
                     LOGGER.info("Game retrieved: " + game);
                     return game;
                 }
@@ -62,10 +112,12 @@ public class MySQLGameDAO implements GameDAO {
 
     @Override
     public void updateGame(Game game) throws DataAccessException {
+        if (storage == Storage.MOVE_LOG && game.game() != null) {
+            appendMoves(game);
+            return;
+        }
         LOGGER.info("Updating game: " + game);
-        String statement = "UPDATE games SET white_username = ?, black_username = ?, game_name = ?, game_data = ? WHERE gameID = ?";
-        String gameDataJson = gson.toJson(game.game());
-        LOGGER.info("Serialized game data for update: " + gameDataJson);
+        String statement = "UPDATE games SET white_username = ?, black_username = ?, game_name = ?, game_state = ?, snapshot_ply = ? WHERE gameID = ?";
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(statement)) {
@@ -73,8 +125,9 @@ public class MySQLGameDAO implements GameDAO {
             ps.setString(1, game.whiteUsername());
             ps.setString(2, game.blackUsername());
             ps.setString(3, game.gameName());
-            ps.setString(4, gameDataJson);
-            ps.setInt(5, game.gameID());
+            ps.setBytes(4, encode(game.game()));
+            ps.setInt(5, plyCount(game.game()));
+            ps.setInt(6, game.gameID());
 
             int affectedRows = ps.executeUpdate();
             LOGGER.info("Rows affected by update: " + affectedRows);
@@ -92,29 +145,92 @@ public class MySQLGameDAO implements GameDAO {
     @Override
     public Collection<Game> listGames() throws DataAccessException {
         LOGGER.info("Listing all games...");
-        String query = "SELECT gameID, white_username, black_username, game_name, game_data FROM games";
-        List<Game> games = new ArrayList<>();
-
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(query);
-             ResultSet rs = ps.executeQuery()) {
+        String query = "SELECT gameID, white_username, black_username, game_name, game_state FROM games";
+        String movesQuery = """
+                SELECT m.gameID, m.ply, m.packed_move FROM game_moves m
+                JOIN games g ON g.gameID = m.gameID
+                WHERE m.ply >= g.snapshot_ply
+                ORDER BY m.gameID, m.ply
+                """;
+        Map<Integer, Game> games = new LinkedHashMap<>();
 
-            while (rs.next()) {
-                Game game = readGame(rs);
-                LOGGER.info("Game found: " + game);
-                games.add(game);
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(query);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Game game = readGame(rs);
+                    LOGGER.info("Game found: " + game);
+                    games.put(game.gameID(), game);
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(movesQuery);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Game game = games.get(rs.getInt("gameID"));
+                    if (game != null) {
+                        replayMove(game, rs);
+                    }
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to list games: " + e.getMessage(), e);
             throw new DataAccessException("Failed to list games: " + e.getMessage());
         }
         LOGGER.info("Total games found: " + games.size());
+        return new ArrayList<>(games.values());
+    }
+
+    @Override
+    public List<GameSummary> listGameSummaries(int afterGameID, int limit, boolean openSeatsOnly) throws DataAccessException {
+        // Reads only the players and name, walking the primary key from afterGameID
+        String query = "SELECT gameID, white_username, black_username, game_name FROM games WHERE gameID > ?"
+                + (openSeatsOnly ? " AND (white_username IS NULL OR black_username IS NULL)" : "")
+                + " ORDER BY gameID LIMIT ?";
+        List<GameSummary> games = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, afterGameID);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    games.add(new GameSummary(rs.getInt("gameID"), rs.getString("white_username"),
+                            rs.getString("black_username"), rs.getString("game_name")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to list games: " + e.getMessage(), e);
+            throw new DataAccessException("Failed to list games: " + e.getMessage());
+        }
+        return games;
+    }
+
+    @Override
+    public List<GameSummary> findGameSummaries(String gameName) throws DataAccessException {
+        // The column's collation ignores case; idx_game_name keeps this to the matching rows
+        String query = "SELECT gameID, white_username, black_username, game_name FROM games WHERE game_name = ? ORDER BY gameID";
+        List<GameSummary> games = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, gameName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    games.add(new GameSummary(rs.getInt("gameID"), rs.getString("white_username"),
+                            rs.getString("black_username"), rs.getString("game_name")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to find games: " + e.getMessage(), e);
+            throw new DataAccessException("Failed to find games: " + e.getMessage());
+        }
         return games;
     }
 
     @Override
     public void deleteAllGames() throws DataAccessException {
         LOGGER.info("Deleting all games...");
+        // Their moves go with them
         String statement = "DELETE FROM games";
 
         try (Connection conn = DatabaseManager.getConnection();
@@ -134,13 +250,119 @@ public class MySQLGameDAO implements GameDAO {
         String whiteUsername = rs.getString("white_username");
         String blackUsername = rs.getString("black_username");
         String gameName = rs.getString("game_name");
-        ChessGame gameData = gson.fromJson(rs.getString("game_data"), ChessGame.class);
+        byte[] state = rs.getBytes("game_state");
+        ChessGame gameData = state == null ? null : GameCodec.decode(state);
 
         Game game = new Game(gameID, whiteUsername, blackUsername, gameName, gameData);
         LOGGER.fine("Deserialized game: " + game);
         return game;
     }
 
+    // Applies one logged move to a game loaded from its snapshot
+    private static void replayMove(Game game, ResultSet rs) throws SQLException, DataAccessException {
+        int ply = rs.getInt("ply");
+        ChessGame chess = game.game();
+        if (ply != chess.getPlyCount()) {
+            throw new DataAccessException("Move log for game " + game.gameID() + " jumps from ply "
+                    + chess.getPlyCount() + " to " + ply);
+        }
+        try {
+            chess.makeMove(PackedMove.toChessMove(rs.getInt("packed_move")));
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Move log for game " + game.gameID() + " has an illegal move at ply " + ply);
+        }
+    }
+
+    private static byte[] encode(ChessGame game) {
+        return game == null ? null : GameCodec.encode(game);
+    }
+
+    private static int plyCount(ChessGame game) {
+        return game == null ? 0 : game.getPlyCount();
+    }
+
+    /*
+     * MOVE_LOG update: appends the moves made since the stored ply, in one transaction with the
+     * player and name columns. Writes a snapshot instead when the moves are not all known, or
+     * the game went back, and as well every SNAPSHOT_INTERVAL plies and once the game is over.
+     */
+    private void appendMoves(Game game) throws DataAccessException {
+        ChessGame chess = game.game();
+        int ply = chess.getPlyCount();
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int snapshotPly;
+                try (PreparedStatement ps = conn.prepareStatement("SELECT snapshot_ply FROM games WHERE gameID = ? FOR UPDATE")) {
+                    ps.setInt(1, game.gameID());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            LOGGER.warning("Update failed: no rows affected.");
+                            throw new DataAccessException("Update failed: no rows affected.");
+                        }
+                        snapshotPly = rs.getInt(1);
+                    }
+                }
+                int storedPly = snapshotPly;
+                try (PreparedStatement ps = conn.prepareStatement("SELECT MAX(ply) FROM game_moves WHERE gameID = ?")) {
+                    ps.setInt(1, game.gameID());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next() && rs.getObject(1) != null) {
+                            storedPly = Math.max(storedPly, rs.getInt(1) + 1);
+                        }
+                    }
+                }
+
+                boolean canAppend = ply >= storedPly && chess.getFirstRecordedPly() <= storedPly;
+                if (canAppend && ply > storedPly) {
+                    try (PreparedStatement ps = conn.prepareStatement("INSERT INTO game_moves (gameID, ply, packed_move) VALUES (?, ?, ?)")) {
+                        for (int i = storedPly; i < ply; i++) {
+                            ps.setInt(1, game.gameID());
+                            ps.setInt(2, i);
+                            ps.setInt(3, chess.getRecordedMove(i));
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                    LOGGER.fine("Appended plies " + storedPly + " to " + (ply - 1) + " of game " + game.gameID());
+                }
+                if (!canAppend) {
+                    // Moves from the stored line that this game no longer follows
+                    try (PreparedStatement ps = conn.prepareStatement("DELETE FROM game_moves WHERE gameID = ? AND ply >= ?")) {
+                        ps.setInt(1, game.gameID());
+                        ps.setInt(2, ply);
+                        ps.executeUpdate();
+                    }
+                }
+
+                boolean snapshot = !canAppend || chess.getGameIsOver() || ply - snapshotPly >= SNAPSHOT_INTERVAL;
+                String statement = snapshot
+                        ? "UPDATE games SET white_username = ?, black_username = ?, game_name = ?, game_state = ?, snapshot_ply = ? WHERE gameID = ?"
+                        : "UPDATE games SET white_username = ?, black_username = ?, game_name = ? WHERE gameID = ?";
+                try (PreparedStatement ps = conn.prepareStatement(statement)) {
+                    int index = 1;
+                    ps.setString(index++, game.whiteUsername());
+                    ps.setString(index++, game.blackUsername());
+                    ps.setString(index++, game.gameName());
+                    if (snapshot) {
+                        ps.setBytes(index++, GameCodec.encode(chess));
+                        ps.setInt(index++, ply);
+                    }
+                    ps.setInt(index, game.gameID());
+                    ps.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException | DataAccessException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to update game: " + e.getMessage(), e);
+            throw new DataAccessException("Failed to update game: " + e.getMessage());
+        }
+    }
+
     private int executeUpdate(String statement, Object... params) throws DataAccessException {
         LOGGER.info("Executing update: " + statement);
         try (Connection conn = DatabaseManager.getConnection();
@@ -153,6 +375,8 @@ public class MySQLGameDAO implements GameDAO {
                     ps.setString(i + 1, param);
                 } else if (params[i] instanceof Integer param) {
                     ps.setInt(i + 1, param);
+                } else if (params[i] instanceof byte[] param) {
+                    ps.setBytes(i + 1, param);
                 }
             }
 
@@ -180,16 +404,170 @@ public class MySQLGameDAO implements GameDAO {
                     white_username VARCHAR(50),
                     black_username VARCHAR(50),
                     game_name VARCHAR(100),
-                    game_data TEXT
+                    game_state BLOB,
+                    snapshot_ply INT NOT NULL DEFAULT 0,
+                    INDEX idx_game_name (game_name)
                 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
                 """;
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(createTable)) {
-            ps.executeUpdate();
+        String createMoves = """
+                CREATE TABLE IF NOT EXISTS game_moves (
+                    gameID INT NOT NULL,
+                    ply INT NOT NULL,
+                    packed_move INT NOT NULL,
+                    PRIMARY KEY (gameID, ply),
+                    FOREIGN KEY (gameID) REFERENCES games(gameID) ON DELETE CASCADE
+                ) ENGINE=InnoDB;
+                """;
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(createTable)) {
+                ps.executeUpdate();
+            }
+            // Tables made before moves were logged start every game at its snapshot
+            addColumnIfMissing(conn, "games", "snapshot_ply", "INT NOT NULL DEFAULT 0");
+            addColumnIfMissing(conn, "games", "game_state", "BLOB");
+            addIndexIfMissing(conn, "games", "idx_game_name", "game_name");
+            // game_data stays until dropJsonGames, as a copy of each game from before the upgrade
+            if (hasColumn(conn, "games", "game_data")) {
+                migrateJsonGames(conn);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(createMoves)) {
+                ps.executeUpdate();
+            }
             LOGGER.info("Database configuration completed.");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to configure games table: " + e.getMessage(), e);
             throw new DataAccessException("Failed to configure games table: " + e.getMessage());
         }
     }
+
+    /**
+     * Drops the game_data column that held games as JSON before game_state. Every game is
+     * re-encoded and checked first, so nothing is dropped that is not in game_state. This is
+     * one-way: a server from before game_state cannot use the table afterwards.
+     *
+     * @throws DataAccessException if a game cannot be read from its JSON; nothing is dropped
+     */
+    public void dropJsonGames() throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            if (!hasColumn(conn, "games", "game_data")) {
+                return;
+            }
+            migrateJsonGames(conn);
+            LOGGER.info("Dropping column game_data from games");
+            try (PreparedStatement ps = conn.prepareStatement("ALTER TABLE games DROP COLUMN game_data")) {
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to drop game_data: " + e.getMessage(), e);
+            throw new DataAccessException("Failed to drop game_data: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Re-encodes games saved as JSON into game_state, in one transaction that also reads each
+     * one back and checks no JSON game is left behind. game_data itself is left alone.
+     */
+    private void migrateJsonGames(Connection conn) throws SQLException, DataAccessException {
+        String query = "SELECT gameID, game_data FROM games WHERE game_state IS NULL AND game_data IS NOT NULL FOR UPDATE";
+        String update = "UPDATE games SET game_state = ? WHERE gameID = ?";
+        String readBack = "SELECT game_state FROM games WHERE gameID = ?";
+        String remaining = "SELECT COUNT(*) FROM games WHERE game_state IS NULL AND game_data IS NOT NULL AND game_data <> 'null'";
+        Map<Integer, ChessGame> migrated = new LinkedHashMap<>();
+
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement select = conn.prepareStatement(query);
+                 ResultSet rs = select.executeQuery();
+                 PreparedStatement ps = conn.prepareStatement(update)) {
+                while (rs.next()) {
+                    int gameID = rs.getInt("gameID");
+                    String json = rs.getString("game_data");
+                    if (json.trim().equals("null")) {
+                        continue; // A game with no ChessGame, which game_state also stores as NULL
+                    }
+                    ChessGame game;
+                    try {
+                        game = gson.fromJson(json, ChessGame.class);
+                    } catch (JsonParseException e) {
+                        throw new DataAccessException("Game " + gameID + " could not be read from game_data: " + e.getMessage());
+                    }
+                    if (game == null) {
+                        throw new DataAccessException("Game " + gameID + " could not be read from game_data");
+                    }
+                    ps.setBytes(1, GameCodec.encode(game));
+                    ps.setInt(2, gameID);
+                    ps.addBatch();
+                    migrated.put(gameID, game);
+                    if (migrated.size() % 500 == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(readBack)) {
+                for (Map.Entry<Integer, ChessGame> entry : migrated.entrySet()) {
+                    ps.setInt(1, entry.getKey());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next() || !entry.getValue().equals(GameCodec.decode(rs.getBytes(1)))) {
+                            throw new DataAccessException("Game " + entry.getKey() + " did not read back the same from game_state");
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(remaining);
+                 ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new DataAccessException(rs.getInt(1) + " games are still only in game_data");
+                }
+            }
+            conn.commit();
+        } catch (SQLException | DataAccessException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        if (!migrated.isEmpty()) {
+            LOGGER.info("Migrated " + migrated.size() + " games from JSON to game_state");
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        if (hasColumn(conn, table, column)) {
+            return;
+        }
+        LOGGER.info("Adding column " + column + " to " + table);
+        try (PreparedStatement ps = conn.prepareStatement("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition)) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static void addIndexIfMissing(Connection conn, String table, String index, String column) throws SQLException {
+        String query = "SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, table);
+            ps.setString(2, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        LOGGER.info("Adding index " + index + " to " + table);
+        try (PreparedStatement ps = conn.prepareStatement("CREATE INDEX " + index + " ON " + table + " (" + column + ")")) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        String query = "SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
 }
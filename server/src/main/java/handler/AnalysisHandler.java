@@ -0,0 +1,71 @@
+package handler;
+
+import chess.ChessMove;
+import chess.engine.SearchResult;
+import com.google.gson.Gson;
+import dataaccess.DataAccessException;
+import exception.ResponseException;
+import logging.LoggerManager;
+import service.AnalysisService;
+import spark.Request;
+import spark.Response;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+public class AnalysisHandler {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(AnalysisHandler.class.getName());
+    private final AnalysisService analysisService;
+    private final Gson gson = new Gson();
+
+    public AnalysisHandler(AnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
+    public Object handle(Request req, Response res) {
+        try {
+            String authToken = req.headers("authorization");
+            if (authToken == null || authToken.isEmpty()) {
+                res.status(401);  // Unauthorized
+                return gson.toJson(new ErrorMessage("Error: unauthorized"));
+            }
+
+            // GET /game/:id/analysis?depth=&timeMs=
+            int gameID = Integer.parseInt(req.params(":id"));
+            Integer depth = optionalInt(req.queryParams("depth"));
+            Integer timeMillis = optionalInt(req.queryParams("timeMs"));
+
+            SearchResult result = analysisService.analyze(gameID, depth, timeMillis, authToken);
+            res.status(200);
+            res.type("application/json");
+            return gson.toJson(new AnalysisResult(result.bestMove(), result.score(), result.isMate(),
+                    result.depth(), result.nodes(), result.principalVariation()));
+
+        } catch (NumberFormatException e) {
+            res.status(400);  // Bad Request
+            return gson.toJson(new ErrorMessage("Error: bad request"));
+        } catch (ResponseException e) {
+            if (e.statusCode() == 503) {
+                res.header("Retry-After", "1");
+            }
+            res.status(e.statusCode());
+            return gson.toJson(new ErrorMessage(e.getMessage()));
+        } catch (DataAccessException e) {
+            LOGGER.severe("DataAccessException: " + e.getMessage());
+            res.status(500);
+            return gson.toJson(new ErrorMessage("Error: " + e.getMessage()));
+        }
+    }
+
+    private static Integer optionalInt(String value) {
+        return value == null || value.isEmpty() ? null : Integer.parseInt(value);
+    }
+
+    record AnalysisResult(ChessMove bestMove, int score, boolean mate, int depth, long nodes,
+                          List<ChessMove> principalVariation) {
+    }
+
+    record ErrorMessage(String message) {
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import dataaccess.DataAccessException;
 import exception.ResponseException;
 import model.User;
+import service.BotService;
 import service.GameService;
 import service.UserService;
 import spark.Request;
@@ -13,11 +14,13 @@ public class JoinGameHandler {
 
     private final GameService gameService;
     private final UserService userService;
+    private final BotService botService;
     private final Gson gson = new Gson();
 
-    public JoinGameHandler(GameService gameService, UserService userService) {
+    public JoinGameHandler(GameService gameService, UserService userService, BotService botService) {
         this.gameService = gameService;
         this.userService = userService;
+        this.botService = botService;
     }
 
     public Object handle(Request req, Response res) {
@@ -40,7 +43,22 @@ public class JoinGameHandler {
                 return gson.toJson(new ErrorResponse("Error: bad request"));
             }
 
-            gameService.joinGame(joinRequest.gameID, joinRequest.playerColor, user.username(), authToken);
+            if (Boolean.TRUE.equals(joinRequest.bot)) {
+                // Seat a bot instead of the caller; it moves as soon as it is its turn
+                BotService.BotSettings settings;
+                try {
+                    settings = new BotService.BotSettings(
+                            joinRequest.botDepth != null ? joinRequest.botDepth : BotService.BotSettings.DEFAULT.maxDepth(),
+                            joinRequest.botMoveTimeMs != null ? joinRequest.botMoveTimeMs : BotService.BotSettings.DEFAULT.moveTimeMillis());
+                } catch (IllegalArgumentException e) {
+                    res.status(400);  // Bad Request
+                    return gson.toJson(new ErrorResponse("Error: bad request"));
+                }
+                gameService.joinGame(joinRequest.gameID, joinRequest.playerColor, settings.username(), authToken);
+                botService.onGameChanged(joinRequest.gameID);
+            } else {
+                gameService.joinGame(joinRequest.gameID, joinRequest.playerColor, user.username(), authToken);
+            }
             res.status(200);  // Success
             res.type("application/json");
             return "";
@@ -58,6 +76,10 @@ public class JoinGameHandler {
     private static class JoinGameRequest {
         String playerColor;
         Integer gameID;
+        // Optional: seat a bot with this strength instead of the caller
+        Boolean bot;
+        Integer botDepth;
+        Long botMoveTimeMs;
     }
 
     private static class ErrorResponse {
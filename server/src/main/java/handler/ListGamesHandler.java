@@ -1,16 +1,17 @@
 package handler;
 
-import chess.ChessGame;
 import com.google.gson.Gson;
 import dataaccess.DataAccessException;
 import exception.ResponseException;
 import logging.LoggerManager;
 import model.Game;
+import model.GameSummary;
 import service.GameService;
 import spark.Request;
 import spark.Response;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Logger;
 
 public class ListGamesHandler {
@@ -32,18 +33,44 @@ public class ListGamesHandler {
                 res.status(401);  // Unauthorized
                 return gson.toJson(new ErrorResponse("Error: unauthorized"));
             }
-            // Get the list of games
-            Collection<Game> games = gameService.listGames(authToken);
+
+            // GET /game?name= finds games by name, in one page
+            String name = req.queryParams("name");
+            if (name != null) {
+                var json = gson.toJson(new ListGamesResponse(gameService.findGames(authToken, name), null));
+                res.status(200);
+                res.type("application/json");
+                res.header("Content-Length", String.valueOf(json.length()));
+                return json;
+            }
+
+            // Plain GET /game keeps its original response: every game, with its board
+            if (req.queryParams("after") == null && req.queryParams("limit") == null && req.queryParams("open") == null) {
+                var json = gson.toJson(new FullListResponse(gameService.listGames(authToken)));
+                res.status(200);
+                res.type("application/json");
+                res.header("Content-Length", String.valueOf(json.length()));
+                return json;
+            }
+
+            // GET /game?after=&limit=&open=true
+            Integer after = optionalInt(req.queryParams("after"));
+            Integer limit = optionalInt(req.queryParams("limit"));
+            boolean openSeatsOnly = Boolean.parseBoolean(req.queryParams("open"));
+            GameService.GamePage page = gameService.listGameSummaries(authToken, after, limit, openSeatsOnly);
 
             // Create a response
-            ListGamesResponse response = new ListGamesResponse(games);
+            ListGamesResponse response = new ListGamesResponse(page.games(), page.nextAfter());
             res.status(200);  // Success
             var json = gson.toJson(response);
 
-            LOGGER.info("json response: " + json);
+            LOGGER.fine("json response: " + json);
             res.type("application/json");
             res.header("Content-Length", String.valueOf(json.length()));
             return json;
+        } catch (NumberFormatException e) {
+            res.status(400);  // Bad Request
+            return gson.toJson(new ErrorResponse("Error: bad request"));
         } catch (ResponseException e) {
             res.status(e.statusCode());
             return gson.toJson(new ErrorResponse(e.getMessage()));
@@ -53,38 +80,16 @@ public class ListGamesHandler {
         }
     }
 
-    // Helper class to format each game in the list
-    private static class GameEntry {
-        private final int gameID;
-        private final String whiteUsername;
-        private final String blackUsername;
-        private final String gameName;
-        private final ChessGame game;
-
-        public GameEntry(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
-            this.gameID = gameID;
-            this.whiteUsername = whiteUsername;
-            this.blackUsername = blackUsername;
-            this.gameName = gameName;
-            this.game = game;
-        }
+    private static Integer optionalInt(String value) {
+        return value == null || value.isEmpty() ? null : Integer.parseInt(value);
     }
 
-    // Helper class to format the response
-    private static class ListGamesResponse {
-        private final GameEntry[] games;
-
-        public ListGamesResponse(Collection<Game> games) {
-            this.games = games.stream()
-                    .map(game -> new GameEntry(
-                            game.gameID(),
-                            game.whiteUsername(),
-                            game.blackUsername(),
-                            game.gameName(),
-                            game.game()
-                    ))
-                    .toArray(GameEntry[]::new);
-        }
+    // Every game, with its ChessGame, as GET /game returned before paging
+    private record FullListResponse(Collection<Game> games) {
+    }
+
+    // The games on one page, and the after parameter for the next page if there is one
+    private record ListGamesResponse(List<GameSummary> games, Integer nextAfter) {
     }
 
 
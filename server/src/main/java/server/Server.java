@@ -1,10 +1,12 @@
 package server;
 
+import chess.engine.OpeningBook;
 import com.google.gson.Gson;
 import dataaccess.DataAccessException;
+import dataaccess.cache.CachingGameDAO;
 import dataaccess.interfaces.AuthDAO;
-import dataaccess.interfaces.GameDAO;
 import dataaccess.interfaces.UserDAO;
+import dataaccess.mysql.DatabaseManager;
 import dataaccess.mysql.MySQLAuthDAO;
 import dataaccess.mysql.MySQLGameDAO;
 import dataaccess.mysql.MySQLUserDAO;
@@ -12,11 +14,16 @@ import handler.*;
 import logging.LoggerManager;
 
 import server.websocket.WebSocketHandler;
+import service.AnalysisService;
+import service.BotService;
 import service.ClearService;
+import service.GameLocks;
 import service.GameService;
 import service.UserService;
 import spark.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,13 +36,15 @@ public class Server {
 
     private final UserDAO userDAO;
     private final AuthDAO authDAO;
-    private final GameDAO gameDAO;
+    private final CachingGameDAO gameDAO;
 
     private final Gson gson = new Gson();
 
     private final UserService userService;
     private final ClearService clearService;
     private final GameService gameService;
+    private final AnalysisService analysisService;
+    private final BotService botService;
 
     private final RegisterUserHandler registerHandler;
     private final ClearHandler clearHandler;
@@ -44,13 +53,19 @@ public class Server {
     private final CreateGameHandler createGameHandler;
     private final ListGamesHandler listGamesHandler;
     private final JoinGameHandler joinGameHandler;
+    private final AnalysisHandler analysisHandler;
     private final WebSocketHandler webSocketHandler;
 
     public Server() {
         try {
             this.userDAO = new MySQLUserDAO();
             this.authDAO = new MySQLAuthDAO();
-            this.gameDAO = new MySQLGameDAO();
+            MySQLGameDAO storedGames = new MySQLGameDAO(gameStorage());
+            // Set chess.dropJsonGames=true, once every server is upgraded, to drop games stored as JSON
+            if (Boolean.getBoolean("chess.dropJsonGames")) {
+                storedGames.dropJsonGames();
+            }
+            this.gameDAO = new CachingGameDAO(storedGames, gameDurability());
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
@@ -58,7 +73,11 @@ public class Server {
 
         this.userService = new UserService(userDAO, authDAO);
         this.clearService = new ClearService(userDAO, gameDAO, authDAO);
-        this.gameService = new GameService(gameDAO, authDAO);
+        GameLocks gameLocks = new GameLocks();
+        this.gameService = new GameService(gameDAO, authDAO, gameLocks);
+        this.analysisService = new AnalysisService(gameDAO, authDAO);
+        this.botService = new BotService(gameDAO, Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
+                loadOpeningBook());
 
         this.registerHandler = new RegisterUserHandler(userService);
         this.clearHandler = new ClearHandler(clearService);
@@ -66,8 +85,9 @@ public class Server {
         this.logoutHandler = new LogoutHandler(userService);
         this.createGameHandler = new CreateGameHandler(gameService, userService);
         this.listGamesHandler = new ListGamesHandler(gameService);
-        this.joinGameHandler = new JoinGameHandler(gameService, userService);
-        this.webSocketHandler = new WebSocketHandler(authDAO, userDAO, gameDAO);
+        this.joinGameHandler = new JoinGameHandler(gameService, userService, botService);
+        this.analysisHandler = new AnalysisHandler(analysisService);
+        this.webSocketHandler = new WebSocketHandler(authDAO, userDAO, gameDAO, botService, gameLocks);
 
 
     }
@@ -94,6 +114,7 @@ public class Server {
         Spark.post("/game", createGameHandler::handle);
         Spark.get("/game", listGamesHandler::handle);
         Spark.put("/game", joinGameHandler::handle);
+        Spark.get("/game/:id/analysis", analysisHandler::handle);
 
 
         // After filter to log the response
@@ -108,8 +129,42 @@ public class Server {
     }
 
     public void stop() {
+        analysisService.close();
+        botService.close();
         Spark.stop();
         Spark.awaitStop();
+        gameDAO.close();
+        DatabaseManager.closePool();
+    }
+
+    // Set chess.gameStorage=moves to log each move instead of rewriting the whole game
+    private static MySQLGameDAO.Storage gameStorage() {
+        return "moves".equalsIgnoreCase(System.getProperty("chess.gameStorage"))
+                ? MySQLGameDAO.Storage.MOVE_LOG
+                : MySQLGameDAO.Storage.SNAPSHOT;
+    }
+
+    // Set chess.gameWrites=through to write every move to the database at once; moves are batched by default
+    private static CachingGameDAO.Durability gameDurability() {
+        return "through".equalsIgnoreCase(System.getProperty("chess.gameWrites"))
+                ? CachingGameDAO.Durability.WRITE_THROUGH
+                : CachingGameDAO.Durability.WRITE_BEHIND;
+    }
+
+    // The book file is named by the chess.openingBook system property; bots search every move without one
+    private static OpeningBook loadOpeningBook() {
+        String file = System.getProperty("chess.openingBook");
+        if (file == null) {
+            return null;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Path.of(file));
+            LOGGER.info("Loaded opening book " + file + " with " + book.size() + " moves");
+            return book;
+        } catch (IOException e) {
+            LOGGER.warning("Could not load opening book " + file + ": " + e.getMessage());
+            return null;
+        }
     }
 
     private void logRequest(spark.Request req, spark.Response res) {
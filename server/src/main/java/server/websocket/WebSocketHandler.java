@@ -1,6 +1,7 @@
 package server.websocket;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.ChessPiece;
 import dataaccess.DataAccessException;
 import dataaccess.interfaces.AuthDAO;
@@ -11,6 +12,8 @@ import model.Auth;
 import model.Game;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import service.BotService;
+import service.GameLocks;
 import websocket.commands.*;
 import com.google.gson.Gson;
 //import dataaccess.DataAccess;
@@ -31,14 +34,20 @@ public class WebSocketHandler {
     private AuthDAO authDAO;
     private GameDAO gameDAO;
     private UserDAO userDAO;
+    private final BotService botService;
+    // Held while a game is read, changed and saved, so bot, WebSocket and join threads cannot overwrite each other
+    private final GameLocks gameLocks;
 
     private final ConnectionManager connections = new ConnectionManager() {
     };
 
-    public WebSocketHandler(AuthDAO authDAO, UserDAO userDAO, GameDAO gameDAO) {
+    public WebSocketHandler(AuthDAO authDAO, UserDAO userDAO, GameDAO gameDAO, BotService botService, GameLocks gameLocks) {
         this.authDAO = authDAO;
+        this.gameLocks = gameLocks;
         this.userDAO = userDAO;
         this.gameDAO = gameDAO;
+        this.botService = botService;
+        botService.setMoveListener(this::botMove);
     }
 
     @OnWebSocketMessage
@@ -135,6 +144,9 @@ public class WebSocketHandler {
             }
             NotificationMessage notificationMessage = new NotificationMessage(NOTIFICATION, notification);
             connections.broadcast(gameID, username, notificationMessage, EVERYONE_BUT_ME);
+
+            // A bot may be waiting to move, for example after a restart
+            botService.onGameChanged(gameID);
         } catch (DataAccessException e) {
             LOGGER.severe("DataAccessException: " + e.getMessage());
             throw new RuntimeException(e);
@@ -144,73 +156,33 @@ public class WebSocketHandler {
 
     private void makeMove(Session session, String username, MakeMoveCommand command) {
         try {
-            Game game = gameDAO.getGame(command.getGameID());
-            ChessGame chessGame = game.game();
-
-            if (!username.equals(game.whiteUsername()) && !username.equals(game.blackUsername())) {
-                throw new Exception(username + " is not playing this game and cannot make a move");
-            }
-
-            ChessPiece myPiece = chessGame.getBoard().getPiece(command.getMove().getStartPosition());
-            ChessGame.TeamColor pieceColor = myPiece.getTeamColor();
-            String pieceColorString = (pieceColor == ChessGame.TeamColor.WHITE) ? "white" : "black";
-            String myTeam;
-
-            if (username.equals(game.blackUsername())) {
-                myTeam = "black";
-            } else if (username.equals(game.whiteUsername())) {
-                myTeam = "white";
-            } else {
-                myTeam = "error";
+            synchronized (lockFor(command.getGameID())) {
+                Game game = gameDAO.getGame(command.getGameID());
+                ChessGame chessGame = game.game();
+
+                if (!username.equals(game.whiteUsername()) && !username.equals(game.blackUsername())) {
+                    throw new Exception(username + " is not playing this game and cannot make a move");
+                }
+
+                ChessPiece myPiece = chessGame.getBoard().getPiece(command.getMove().getStartPosition());
+                ChessGame.TeamColor pieceColor = myPiece.getTeamColor();
+                String pieceColorString = (pieceColor == ChessGame.TeamColor.WHITE) ? "white" : "black";
+                String myTeam;
+
+                if (username.equals(game.blackUsername())) {
+                    myTeam = "black";
+                } else if (username.equals(game.whiteUsername())) {
+                    myTeam = "white";
+                } else {
+                    myTeam = "error";
+                }
+                // Is the piece my piece?
+                if (pieceColorString != myTeam) {
+                    throw new Exception("Error: you cannot move your opponent's pieces");
+                }
+
+                playMove(game, username, command.getMove());
             }
-            // Is the piece my piece?
-            if (pieceColorString != myTeam) {
-                throw new Exception("Error: you cannot move your opponent's pieces");
-            }
-
-            //      Server verifies the validity of the move.
-            chessGame.makeMove(command.getMove());
-
-            // Game is updated to represent the move. Game is updated in the database.
-            Game updatedGame = new Game(game.gameID(),
-                    game.whiteUsername(),
-                    game.blackUsername(),
-                    game.gameName(),
-                    chessGame);
-            gameDAO.updateGame(updatedGame);
-
-            // Server sends a LOAD_GAME message to all clients in the game (including the root client) with an updated game.
-            LoadGameMessage loadGameMessage = new LoadGameMessage(LOAD_GAME, chessGame);
-            connections.broadcast(command.getGameID(), username, loadGameMessage, EVERYONE);
-
-            // Server sends a Notification message to all other clients in that game informing them what move was made.
-            NotificationMessage notificationMessage = new NotificationMessage(NOTIFICATION,
-                    "Player " + username + " has made move: " + command.getMove().toString());
-            NotificationMessage notificationMessageStatus = null;
-            connections.broadcast(command.getGameID(), username, notificationMessage, EVERYONE_BUT_ME);
-
-            // If the move results in check, checkmate or stalemate the server sends a Notification message to all clients.
-            String targetUser = "";
-            if (chessGame.getTeamTurn().toString().contains("BLACK")) {
-                targetUser = game.blackUsername();
-            } else if (chessGame.getTeamTurn().toString().contains("WHITE")) {
-                targetUser = game.whiteUsername();
-            }
-            if (chessGame.isInCheckmate(chessGame.getTeamTurn())) {
-                notificationMessageStatus = new NotificationMessage(NOTIFICATION,
-                        targetUser + " (" + chessGame.getTeamTurn().toString() + ")"
-                                + " is in check mate, " + username + " wins.");
-                connections.broadcast(command.getGameID(), username, notificationMessageStatus, EVERYONE);
-            } else if (chessGame.isInCheck(chessGame.getTeamTurn())) {
-                notificationMessageStatus = new NotificationMessage(NOTIFICATION,
-                        targetUser + " (" + chessGame.getTeamTurn().toString() + ")" + " is in check");
-                connections.broadcast(command.getGameID(), username, notificationMessageStatus, EVERYONE);
-            } else if (chessGame.isInStalemate(chessGame.getTeamTurn())) {
-                notificationMessageStatus = new NotificationMessage(NOTIFICATION, "Stalemate, game over.");
-                connections.broadcast(command.getGameID(), username, notificationMessageStatus, EVERYONE);
-            }
-
-
         } catch (Exception e) {
             LOGGER.warning("Error making move: " + e.getMessage());
             ErrorMessage errorMessage = new ErrorMessage(ERROR, "Error making move: " + e.getMessage());
@@ -219,29 +191,101 @@ public class WebSocketHandler {
 
     }
 
+    /**
+     * Plays a move for a seated player, saves the game and tells everyone in it.
+     * Then lets the bot service know, in case a bot is to move next.
+     */
+    private void playMove(Game game, String username, ChessMove move) throws Exception {
+        //      Server verifies the validity of the move.
+        ChessGame chessGame = game.game();
+        chessGame.makeMove(move);
+
+        // Game is updated to represent the move. Game is updated in the database.
+        Game updatedGame = new Game(game.gameID(),
+                game.whiteUsername(),
+                game.blackUsername(),
+                game.gameName(),
+                chessGame);
+        gameDAO.updateGame(updatedGame);
+
+        // Server sends a LOAD_GAME message to all clients in the game (including the root client) with an updated game.
+        LoadGameMessage loadGameMessage = new LoadGameMessage(LOAD_GAME, chessGame);
+        connections.broadcast(game.gameID(), username, loadGameMessage, EVERYONE);
+
+        // Server sends a Notification message to all other clients in that game informing them what move was made.
+        NotificationMessage notificationMessage = new NotificationMessage(NOTIFICATION,
+                "Player " + username + " has made move: " + move.toString());
+        NotificationMessage notificationMessageStatus = null;
+        connections.broadcast(game.gameID(), username, notificationMessage, EVERYONE_BUT_ME);
+
+        // If the move results in check, checkmate or stalemate the server sends a Notification message to all clients.
+        String targetUser = "";
+        if (chessGame.getTeamTurn().toString().contains("BLACK")) {
+            targetUser = game.blackUsername();
+        } else if (chessGame.getTeamTurn().toString().contains("WHITE")) {
+            targetUser = game.whiteUsername();
+        }
+        if (chessGame.isInCheckmate(chessGame.getTeamTurn())) {
+            notificationMessageStatus = new NotificationMessage(NOTIFICATION,
+                    targetUser + " (" + chessGame.getTeamTurn().toString() + ")"
+                            + " is in check mate, " + username + " wins.");
+            connections.broadcast(game.gameID(), username, notificationMessageStatus, EVERYONE);
+        } else if (chessGame.isInCheck(chessGame.getTeamTurn())) {
+            notificationMessageStatus = new NotificationMessage(NOTIFICATION,
+                    targetUser + " (" + chessGame.getTeamTurn().toString() + ")" + " is in check");
+            connections.broadcast(game.gameID(), username, notificationMessageStatus, EVERYONE);
+        } else if (chessGame.isInStalemate(chessGame.getTeamTurn())) {
+            notificationMessageStatus = new NotificationMessage(NOTIFICATION, "Stalemate, game over.");
+            connections.broadcast(game.gameID(), username, notificationMessageStatus, EVERYONE);
+        }
+
+        botService.onGameChanged(game.gameID());
+    }
+
+    /**
+     * Plays a move a bot chose, unless the game moved on or ended while it was thinking
+     */
+    public void botMove(int gameID, String username, ChessGame.TeamColor color, ChessMove move) {
+        try {
+            synchronized (lockFor(gameID)) {
+                Game game = gameDAO.getGame(gameID);
+                String seated = color == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+                if (!username.equals(seated) || game.game().getGameIsOver() || game.game().getTeamTurn() != color) {
+                    LOGGER.info("Dropping stale bot move in game " + gameID);
+                    return;
+                }
+                playMove(game, username, move);
+            }
+        } catch (Exception e) {
+            LOGGER.warning("Error making bot move: " + e.getMessage());
+        }
+    }
+
     private void leave(Session session, String username, UserGameCommand command) {
         try {
             LOGGER.info(username + " attempting to leave game...");
 
             // Remove player from their role.
-            Game game = gameDAO.getGame(command.getGameID());
-            Game newGame;
-
-            LOGGER.info(game.whiteUsername() + " is the whiteUsername");
-            LOGGER.info(game.blackUsername() + " is the blackUsername");
-            if (game.whiteUsername() != null && game.whiteUsername().equals(username)) {
-                LOGGER.info("Removing whiteUsername...");
-                newGame = new Game(command.getGameID(), null, game.blackUsername(), game.gameName(), game.game());
-            } else if (game.blackUsername() != null && game.blackUsername().equals(username)) {
-                LOGGER.info("Removing blackUsername...");
-                newGame = new Game(command.getGameID(), game.whiteUsername(), null, game.gameName(), game.game());
-            } else {
-                newGame = null;
-            }
-
-            if (newGame != null) {
-                LOGGER.info("Updating " + game.gameName() + ": \n" + game.toString() + "\n to: \n" + newGame.toString());
-                gameDAO.updateGame(newGame);
+            synchronized (lockFor(command.getGameID())) {
+                Game game = gameDAO.getGame(command.getGameID());
+                Game newGame;
+
+                LOGGER.info(game.whiteUsername() + " is the whiteUsername");
+                LOGGER.info(game.blackUsername() + " is the blackUsername");
+                if (game.whiteUsername() != null && game.whiteUsername().equals(username)) {
+                    LOGGER.info("Removing whiteUsername...");
+                    newGame = new Game(command.getGameID(), null, game.blackUsername(), game.gameName(), game.game());
+                } else if (game.blackUsername() != null && game.blackUsername().equals(username)) {
+                    LOGGER.info("Removing blackUsername...");
+                    newGame = new Game(command.getGameID(), game.whiteUsername(), null, game.gameName(), game.game());
+                } else {
+                    newGame = null;
+                }
+
+                if (newGame != null) {
+                    LOGGER.info("Updating " + game.gameName() + ": \n" + game.toString() + "\n to: \n" + newGame.toString());
+                    gameDAO.updateGame(newGame);
+                }
             }
 
             // remove the root client
@@ -260,18 +304,20 @@ public class WebSocketHandler {
 
     private void resign(Session session, String username, UserGameCommand command) {
         try {
-            Game game = gameDAO.getGame(command.getGameID());
+            synchronized (lockFor(command.getGameID())) {
+                Game game = gameDAO.getGame(command.getGameID());
 
-            if (!username.equals(game.whiteUsername()) && !username.equals(game.blackUsername())) {
-                throw new Exception(username + " is not playing this game and cannot resign");
-            }
+                if (!username.equals(game.whiteUsername()) && !username.equals(game.blackUsername())) {
+                    throw new Exception(username + " is not playing this game and cannot resign");
+                }
 
-            game.game().setGameIsOver();
-            gameDAO.updateGame(game);
+                game.game().setGameIsOver();
+                gameDAO.updateGame(game);
 
-            NotificationMessage notificationMessage = new NotificationMessage(NOTIFICATION,
-                    "Player " + username + " has resigned, the game is over");
-            connections.broadcast(command.getGameID(), username, notificationMessage, EVERYONE);
+                NotificationMessage notificationMessage = new NotificationMessage(NOTIFICATION,
+                        "Player " + username + " has resigned, the game is over");
+                connections.broadcast(command.getGameID(), username, notificationMessage, EVERYONE);
+            }
         } catch (Exception e) {
             LOGGER.warning("Error resigning: " + e.getMessage());
             ErrorMessage errorMessage = new ErrorMessage(ERROR, "Error resigning: " + e.getMessage());
@@ -280,5 +326,7 @@ public class WebSocketHandler {
 
     }
 
-
+    private Object lockFor(int gameID) {
+        return gameLocks.lockFor(gameID);
+    }
 }
@@ -0,0 +1,186 @@
+package service;
+
+import chess.engine.SearchResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Finished analyses keyed by position and search limits, so observers of the same
+ * game share one engine search.
+ * <p>
+ * Results are kept for a fixed time, and the least recently used results are dropped once the
+ * cache is full. A request that misses while the same search is already running waits for that
+ * search instead of starting another (single flight), up to a fixed number of requests per
+ * search; any more are turned away rather than left waiting. A search that fails is not cached,
+ * so the next request tries again.
+ */
+public class AnalysisCache {
+
+    /**
+     * @param positionKey the position's Zobrist key
+     * @param depth       the requested depth
+     * @param timeMillis  the time limit the search ran with
+     */
+    public record Key(long positionKey, int depth, long timeMillis) {
+    }
+
+    private record Entry(SearchResult result, long expiresAt) {
+    }
+
+    private record Flight(CompletableFuture<SearchResult> result, AtomicInteger joiners) {
+    }
+
+    public static final int DEFAULT_MAX_JOINERS = 8;
+
+    private final long ttlNanos;
+    private final int maxJoiners;
+    private final Map<Key, Entry> entries;
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong joins = new AtomicLong();
+
+    /**
+     * @param capacity  the most results to keep
+     * @param ttlMillis how long a result stays usable
+     */
+    public AnalysisCache(int capacity, long ttlMillis) {
+        this(capacity, ttlMillis, DEFAULT_MAX_JOINERS);
+    }
+
+    /**
+     * @param capacity   the most results to keep
+     * @param ttlMillis  how long a result stays usable
+     * @param maxJoiners the most requests that may join one running search
+     */
+    public AnalysisCache(int capacity, long ttlMillis, int maxJoiners) {
+        if (capacity < 1 || ttlMillis < 1 || maxJoiners < 0) {
+            throw new IllegalArgumentException("Cache capacity and time to live must be positive, joiners not negative");
+        }
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxJoiners = maxJoiners;
+        // Access order, so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result, joins a search already running for the key, or starts one
+     *
+     * @param key    the position and limits
+     * @param search starts the search; called at most once per miss, on the calling thread
+     * @return the result, possibly still running
+     * @throws RejectedExecutionException if the search is running and already has the most joiners
+     * @throws RuntimeException           whatever search throws while starting; requests that
+     *                                    joined in the meantime see it as the future's failure
+     */
+    public CompletableFuture<SearchResult> get(Key key, Supplier<CompletableFuture<SearchResult>> search) {
+        SearchResult cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<SearchResult> flight = new CompletableFuture<>();
+        Flight claimed = new Flight(flight, new AtomicInteger());
+        Flight running = inFlight.putIfAbsent(key, claimed);
+        if (running != null) {
+            // Counted for the life of the search, which its time limit keeps short
+            if (running.joiners().incrementAndGet() > maxJoiners) {
+                throw new RejectedExecutionException("Too many requests waiting for this search");
+            }
+            joins.incrementAndGet();
+            return running.result();
+        }
+        // The search may have finished between the lookup and claiming the flight
+        cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            inFlight.remove(key, claimed);
+            flight.complete(cached);
+            return flight;
+        }
+        misses.incrementAndGet();
+
+        try {
+            search.get().whenComplete((result, failure) -> {
+                if (failure == null) {
+                    put(key, result);
+                }
+                inFlight.remove(key, claimed);
+                if (failure == null) {
+                    flight.complete(result);
+                } else {
+                    flight.completeExceptionally(failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, claimed);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        return flight;
+    }
+
+    /**
+     * @return how many results are cached, including expired ones not yet dropped
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return requests answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return requests that started a search
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return requests that waited for a search another request started
+     */
+    public long getJoinCount() {
+        return joins.get();
+    }
+
+    /**
+     * Drops every result. Searches already running still finish and are cached.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized SearchResult lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.result();
+    }
+
+    private synchronized void put(Key key, SearchResult result) {
+        entries.put(key, new Entry(result, System.nanoTime() + ttlNanos));
+    }
+}
@@ -0,0 +1,202 @@
+package service;
+
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.AuthDAO;
+import dataaccess.interfaces.GameDAO;
+import exception.ResponseException;
+import logging.LoggerManager;
+import model.Auth;
+import model.Game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs the engine on stored games.
+ * <p>
+ * Searches run on a fixed pool of analysis threads with a short queue in front, so
+ * they never take CPU from the threads serving the rest of the API. The calling
+ * thread waits for its result, but no longer than the search's own time limit plus a
+ * short grace, and only a few callers per analysis thread and queue slot may wait at once.
+ * Once every analysis thread is busy and the queue is full, or too many callers are already
+ * waiting, new requests are turned away at once instead of piling up and holding request
+ * threads. Every search has a time limit, capped at the service's maximum.
+ * <p>
+ * Requests for a position and limits already analyzed, or being analyzed, share that
+ * search through an AnalysisCache, so observers of one game cost a single search.
+ */
+public class AnalysisService implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(AnalysisService.class.getName());
+
+    public static final long DEFAULT_TIME_MILLIS = 1000;
+    public static final long MAX_TIME_MILLIS = 5000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    public static final int MAX_DEPTH = 64;
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+    public static final long DEFAULT_CACHE_TTL_MILLIS = 10 * 60 * 1000;
+    // How long past its time limit to wait for a search before giving up on it
+    private static final long GRACE_MILLIS = 500;
+    // Callers that may wait at once for each analysis thread and queue slot
+    private static final int WAITERS_PER_SEARCH = 4;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final GameDAO gameDAO;
+    private final AuthDAO authDAO;
+    private final long maxTimeMillis;
+    private final ThreadPoolExecutor executor;
+    private final AnalysisCache cache;
+    // Bounds the request threads parked waiting for a result
+    private final Semaphore waiters;
+    private final TranspositionTable table = new TranspositionTable();
+    // Each analysis thread keeps one Search; they all share the table
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(() -> new Search(table));
+
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO) {
+        this(gameDAO, authDAO, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                DEFAULT_QUEUE_CAPACITY, MAX_TIME_MILLIS, new AnalysisCache(DEFAULT_CACHE_CAPACITY, DEFAULT_CACHE_TTL_MILLIS));
+    }
+
+    /**
+     * @param threads       how many searches may run at once
+     * @param queueCapacity how many requests may wait for a thread before new ones are rejected
+     * @param maxTimeMillis the longest time limit a request may ask for
+     * @param cache         finished analyses to share between requests for the same position
+     */
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO, int threads, int queueCapacity, long maxTimeMillis,
+                           AnalysisCache cache) {
+        if (threads < 1 || queueCapacity < 1 || maxTimeMillis < 1) {
+            throw new IllegalArgumentException("Analysis threads, queue capacity and time limit must be positive");
+        }
+        this.gameDAO = gameDAO;
+        this.authDAO = authDAO;
+        this.maxTimeMillis = maxTimeMillis;
+        this.cache = cache;
+        this.waiters = new Semaphore((threads + queueCapacity) * WAITERS_PER_SEARCH);
+
+        int pool = POOL_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Searches the current position of a game
+     *
+     * @param gameID     the game to analyze
+     * @param depth      the deepest iteration to search, or null for as deep as time allows
+     * @param timeMillis the time limit, or null for the default; capped at the service maximum
+     * @param authToken  the caller's auth token
+     * @return the best move, score and principal variation
+     */
+    public SearchResult analyze(int gameID, Integer depth, Integer timeMillis, String authToken)
+            throws DataAccessException, ResponseException {
+        validateAuthToken(authToken);
+        if ((depth != null && (depth < 1 || depth > MAX_DEPTH)) || (timeMillis != null && timeMillis < 1)) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+
+        Game game = gameDAO.getGame(gameID);
+        if (game == null) {
+            throw new ResponseException(400, "Error: Game not found");
+        }
+
+        long time = timeMillis == null ? Math.min(DEFAULT_TIME_MILLIS, maxTimeMillis) : Math.min(timeMillis, maxTimeMillis);
+        SearchLimits limits = new SearchLimits(depth == null ? MAX_DEPTH : depth, time, 0);
+
+        AnalysisCache.Key key = new AnalysisCache.Key(game.game().getZobristKey(), limits.maxDepth(), time);
+        CompletableFuture<SearchResult> result;
+        try {
+            result = cache.get(key, () -> CompletableFuture.supplyAsync(
+                    () -> searches.get().search(game.game(), limits), executor));
+        } catch (RejectedExecutionException e) {
+            // The queue is full, or the running search already has as many joiners as it takes
+            throw busy(gameID);
+        }
+
+        if (result.isDone()) {
+            return await(result, 0, gameID);
+        }
+        if (!waiters.tryAcquire()) {
+            throw busy(gameID);
+        }
+        try {
+            // A search still queued when this runs out is left to finish, so a retry finds it cached
+            return await(result, time + GRACE_MILLIS, gameID);
+        } finally {
+            waiters.release();
+        }
+    }
+
+    private SearchResult await(CompletableFuture<SearchResult> result, long timeoutMillis, int gameID)
+            throws ResponseException {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Not cancelled, as other requests may be waiting for the same search
+            throw new ResponseException(503, "Error: analysis timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseException(500, "Error: analysis interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw busy(gameID); // Joined a search that could not be queued
+            }
+            LOGGER.severe("Analysis failed for game " + gameID + ": " + e.getCause());
+            throw new ResponseException(500, "Error: analysis failed");
+        }
+    }
+
+    /**
+     * @return the cache of finished analyses
+     */
+    public AnalysisCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return how many requests are waiting for an analysis thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops the analysis threads; searches still waiting are dropped
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private ResponseException busy(int gameID) {
+        LOGGER.warning("Analysis rejected for game " + gameID + ", queue depth " + getQueueDepth());
+        return new ResponseException(503, "Error: analysis is busy, try again later");
+    }
+
+    // Helper method to validate authToken
+    private void validateAuthToken(String authToken) throws ResponseException, DataAccessException {
+        Auth auth = authDAO.getAuth(authToken);
+        if (auth == null) {
+            throw new ResponseException(401, "Error: unauthorized");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.engine.OpeningBook;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameDAO;
+import logging.LoggerManager;
+import model.Game;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Plays engine moves for bot players.
+ * <p>
+ * A bot takes a seat like any player, under a username made by {@link BotSettings#username()}
+ * that records its strength. Whenever a game changes, the WebSocket handler tells the
+ * service. If a bot is to move, the service plays from the opening book when it can, or else
+ * searches on its own small scheduler. Either way it hands the move back to be played like
+ * a player's move.
+ * <p>
+ * Bot threads run below normal priority and each game has at most one move pending, so
+ * however many bot games are running, they queue up here and do not hold up human moves.
+ */
+public class BotService implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(BotService.class.getName());
+
+    public static final String USERNAME_PREFIX = "bot:";
+    public static final int MAX_DEPTH = 20;
+    public static final long MAX_MOVE_TIME_MILLIS = 10_000;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    /**
+     * How strongly a bot plays
+     *
+     * @param maxDepth       the deepest the bot searches, from 1 to MAX_DEPTH
+     * @param moveTimeMillis the time it takes per move, from 1 to MAX_MOVE_TIME_MILLIS
+     */
+    public record BotSettings(int maxDepth, long moveTimeMillis) {
+        public static final BotSettings DEFAULT = new BotSettings(MAX_DEPTH, 1000);
+
+        public BotSettings {
+            if (maxDepth < 1 || maxDepth > MAX_DEPTH || moveTimeMillis < 1 || moveTimeMillis > MAX_MOVE_TIME_MILLIS) {
+                throw new IllegalArgumentException("Bot depth must be 1 to " + MAX_DEPTH
+                        + " and move time 1 to " + MAX_MOVE_TIME_MILLIS + " ms");
+            }
+        }
+
+        /**
+         * @return the username the bot is seated under, for example "bot:20:1000"
+         */
+        public String username() {
+            return USERNAME_PREFIX + maxDepth + ":" + moveTimeMillis;
+        }
+
+        /**
+         * @return the settings of a bot username, or null if the username is not a bot's
+         */
+        public static BotSettings parse(String username) {
+            if (!isBot(username)) {
+                return null;
+            }
+            String[] parts = username.substring(USERNAME_PREFIX.length()).split(":");
+            try {
+                return new BotSettings(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Receives the moves bots choose
+     */
+    public interface MoveListener {
+        void botMove(int gameID, String username, ChessGame.TeamColor color, ChessMove move);
+    }
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final GameDAO gameDAO;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final TranspositionTable table = new TranspositionTable();
+    private final ThreadLocal<Search> searches;
+    // Games with a bot move being worked out
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    // Games changed since their pending turn last read them
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    private volatile MoveListener listener;
+
+    public BotService(GameDAO gameDAO) {
+        this(gameDAO, Math.max(1, Runtime.getRuntime().availableProcessors() / 4), null);
+    }
+
+    /**
+     * @param threads how many bot moves may be searched at once
+     * @param book    the opening book bots play from while they are in it, or null for none
+     */
+    public BotService(GameDAO gameDAO, int threads, OpeningBook book) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Bot thread count must be at least 1: " + threads);
+        }
+        this.gameDAO = gameDAO;
+        this.searches = ThreadLocal.withInitial(() -> {
+            Search search = new Search(table);
+            search.setOpeningBook(book);
+            return search;
+        });
+
+        int pool = POOL_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bot-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 2);
+            return thread;
+        });
+    }
+
+    /**
+     * @param listener plays the moves bots choose; set before games change
+     */
+    public void setMoveListener(MoveListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return True if a username belongs to a bot, which players may not register
+     */
+    public static boolean isBot(String username) {
+        return username != null && username.startsWith(USERNAME_PREFIX);
+    }
+
+    /**
+     * Checks whether a bot is to move in a game and, if so, schedules its move.
+     * Returns at once; the move is passed to the listener later.
+     */
+    public void onGameChanged(int gameID) {
+        // Set first, so a turn already pending sees the change when it finishes
+        changed.add(gameID);
+        if (pending.add(gameID)) {
+            scheduler.execute(() -> playTurn(gameID, 0));
+        }
+    }
+
+    /**
+     * @return how many bot moves are waiting for a thread
+     */
+    public int getQueueDepth() {
+        return scheduler.getQueue().size();
+    }
+
+    /**
+     * Stops the bot threads; moves not yet chosen are dropped
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void playTurn(int gameID, int attempt) {
+        String username;
+        ChessGame.TeamColor color;
+        SearchResult result;
+        changed.remove(gameID);
+        try {
+            Game game = gameDAO.getGame(gameID);
+            if (game == null || game.game().getGameIsOver()) {
+                finishTurn(gameID);
+                return;
+            }
+            color = game.game().getTeamTurn();
+            username = color == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+            BotSettings settings = BotSettings.parse(username);
+            if (settings == null) {
+                finishTurn(gameID);
+                return;
+            }
+            result = searches.get().search(game.game(), new SearchLimits(settings.maxDepth(), settings.moveTimeMillis(), 0));
+        } catch (DataAccessException e) {
+            if (attempt < MAX_RETRIES) {
+                LOGGER.warning("Bot could not load game " + gameID + ", retrying: " + e.getMessage());
+                scheduler.schedule(() -> playTurn(gameID, attempt + 1), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                LOGGER.severe("Bot gave up on game " + gameID + ": " + e.getMessage());
+                finishTurn(gameID);
+            }
+            return;
+        } catch (RuntimeException e) {
+            LOGGER.severe("Bot failed in game " + gameID + ": " + e);
+            finishTurn(gameID);
+            return;
+        }
+
+        // Cleared before the move is played, so the move can schedule the next bot turn
+        finishTurn(gameID);
+        MoveListener moveListener = listener;
+        if (result.bestMove() != null && moveListener != null) {
+            moveListener.botMove(gameID, username, color, result.bestMove());
+        }
+    }
+
+    private void finishTurn(int gameID) {
+        pending.remove(gameID);
+        // A change that came in while this turn was pending was not scheduled, so look again
+        if (changed.contains(gameID)) {
+            onGameChanged(gameID);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package service;
+
+/**
+ * Locks held while a game is read, changed and saved, so requests changing the same game
+ * cannot overwrite each other. Striped by game ID, so there is a fixed number however many
+ * games there are, and games sharing none do not wait for each other.
+ */
+public class GameLocks {
+
+    private static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+
+    public GameLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return the lock to hold while changing a game
+     */
+    public Object lockFor(int gameID) {
+        return locks[Math.floorMod(gameID, locks.length)];
+    }
+}
@@ -7,22 +7,35 @@ import dataaccess.interfaces.GameDAO;
 import dataaccess.mysql.MySQLGameDAO;
 import logging.LoggerManager;
 import model.Game;
+import model.GameSummary;
 import model.Auth;
 import exception.ResponseException;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Logger;
 
 public class GameService {
 
     private static final Logger LOGGER = LoggerManager.getLogger(GameService.class.getName());
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
     private final GameDAO gameDAO;
     private final AuthDAO authDAO;
+    private final GameLocks gameLocks;
 
     // Constructor
     public GameService(GameDAO gameDAO, AuthDAO authDAO) {
+        this(gameDAO, authDAO, new GameLocks());
+    }
+
+    /**
+     * @param gameLocks held while a player is seated; shared with whatever else changes games
+     */
+    public GameService(GameDAO gameDAO, AuthDAO authDAO, GameLocks gameLocks) {
         this.gameDAO = gameDAO;
         this.authDAO = authDAO;
+        this.gameLocks = gameLocks;
     }
 
     public Game createGame(String gameName, String authToken) throws DataAccessException, ResponseException {
@@ -55,6 +68,54 @@ public class GameService {
         return gameDAO.listGames();
     }
 
+    /**
+     * One page of the lobby list
+     *
+     * @param games     the games on this page, in order of game ID
+     * @param nextAfter the afterGameID for the next page, or null if this is the last
+     */
+    public record GamePage(List<GameSummary> games, Integer nextAfter) {
+    }
+
+    /**
+     * Lists games for the lobby without loading them
+     *
+     * @param afterGameID   list games after this ID, or null to start from the first
+     * @param limit         how many games to list, up to MAX_PAGE_SIZE, or null for DEFAULT_PAGE_SIZE
+     * @param openSeatsOnly list only games with a seat free, if True
+     */
+    public GamePage listGameSummaries(String authToken, Integer afterGameID, Integer limit, Boolean openSeatsOnly)
+            throws DataAccessException, ResponseException {
+        validateAuthToken(authToken);
+
+        int after = afterGameID == null ? 0 : afterGameID;
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (after < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+
+        // One more than asked for tells whether there is another page
+        List<GameSummary> games = gameDAO.listGameSummaries(after, pageSize + 1, Boolean.TRUE.equals(openSeatsOnly));
+        if (games.size() <= pageSize) {
+            return new GamePage(games, null);
+        }
+        games = games.subList(0, pageSize);
+        return new GamePage(games, games.getLast().gameID());
+    }
+
+    /**
+     * Finds games by name for the lobby, so a player can join one without listing every game
+     *
+     * @param gameName the name, ignoring case
+     */
+    public List<GameSummary> findGames(String authToken, String gameName) throws DataAccessException, ResponseException {
+        validateAuthToken(authToken);
+        if (gameName == null || gameName.isBlank()) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+        return gameDAO.findGameSummaries(gameName);
+    }
+
     public void joinGame(int gameID, String playerColor, String username, String authToken) throws DataAccessException, ResponseException {
         validateAuthToken(authToken);  // Check if authToken is valid
 
@@ -62,6 +123,13 @@ public class GameService {
             throw new ResponseException(400, "Error: bad request");
         }
 
+        // Held to the save, so a move made meanwhile is not overwritten by this older copy
+        synchronized (gameLocks.lockFor(gameID)) {
+            seatPlayer(gameID, playerColor, username);
+        }
+    }
+
+    private void seatPlayer(int gameID, String playerColor, String username) throws DataAccessException, ResponseException {
         Game game = gameDAO.getGame(gameID);
         if (game == null) {
             throw new ResponseException(507, "Error: Game not found");
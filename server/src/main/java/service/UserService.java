@@ -27,6 +27,10 @@ public class UserService {
     public Auth register(User user) throws ResponseException, DataAccessException {
         LOGGER.log(Level.INFO, "Attempting to register user: {0}", user.username());
 
+        if (BotService.isBot(user.username())) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+
         if (userDAO.getUser(user.username()) != null) {
             LOGGER.log(Level.WARNING, "User already exists: {0}", user.username());
             throw new ResponseException(403, "Error: User already exists");
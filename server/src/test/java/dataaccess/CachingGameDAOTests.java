@@ -0,0 +1,318 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.cache.CachingGameDAO;
+import dataaccess.memory.MemoryGameDAO;
+import model.Game;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingGameDAOTests {
+
+    // Counts the calls that would reach the database
+    private static class CountingGameDAO extends MemoryGameDAO {
+        int reads;
+        int writes;
+
+        @Override
+        public Game getGame(int gameID) throws DataAccessException {
+            reads++;
+            return super.getGame(gameID);
+        }
+
+        @Override
+        public void updateGame(Game game) throws DataAccessException {
+            writes++;
+            super.updateGame(game);
+        }
+    }
+
+    private final CountingGameDAO stored = new CountingGameDAO();
+
+    // A long interval, so only the tests flush
+    private CachingGameDAO cache(CachingGameDAO.Durability durability) {
+        return new CachingGameDAO(stored, durability, 10, 60_000);
+    }
+
+    private static void move(Game game, String from, String to) throws Exception {
+        game.game().makeMove(new ChessMove(position(from), position(to), null));
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    @Test
+    @DisplayName("Reads Are Served From Memory")
+    public void readsFromMemory() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(games.getGame(gameID));
+            }
+            assertEquals(0, stored.reads);
+            assertNull(games.getGame(gameID + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Updates Are Coalesced Until Flushed")
+    public void writeBehind() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            for (String[] squares : new String[][]{{"e2", "e4"}, {"e7", "e5"}, {"g1", "f3"}}) {
+                Game game = games.getGame(gameID);
+                move(game, squares[0], squares[1]);
+                games.updateGame(game);
+            }
+
+            assertEquals(0, stored.writes, "Moves should wait for the flush");
+            assertEquals(1, games.getDirtyCount());
+            assertEquals(ChessGame.TeamColor.BLACK, games.getGame(gameID).game().getTeamTurn());
+            assertEquals(ChessGame.TeamColor.BLACK, games.listGames().iterator().next().game().getTeamTurn(),
+                    "Listing should show moves not yet written");
+
+            games.flush();
+            assertEquals(1, stored.writes, "Three moves should be written once");
+            assertEquals(0, games.getDirtyCount());
+            assertEquals(ChessGame.TeamColor.BLACK, stored.getGame(gameID).game().getTeamTurn());
+        }
+    }
+
+    @Test
+    @DisplayName("Callers Cannot Change Cached Games")
+    public void copies() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            move(games.getGame(gameID), "e2", "e4");
+
+            assertEquals(ChessGame.TeamColor.WHITE, games.getGame(gameID).game().getTeamTurn(),
+                    "A move not passed to updateGame should not be kept");
+        }
+    }
+
+    @Test
+    @DisplayName("Finished Games Are Written At Once")
+    public void gameEndFlushes() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            String[][] foolsMate = {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}, {"d8", "h4"}};
+            for (String[] squares : foolsMate) {
+                Game game = games.getGame(gameID);
+                move(game, squares[0], squares[1]);
+                games.updateGame(game);
+            }
+
+            assertEquals(1, stored.writes, "Only the mating move should be written");
+            assertEquals(0, games.getDirtyCount());
+            assertTrue(stored.getGame(gameID).game().isInCheckmate(ChessGame.TeamColor.WHITE));
+        }
+    }
+
+    @Test
+    @DisplayName("Write Through Writes Every Update")
+    public void writeThrough() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_THROUGH)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            Game game = games.getGame(gameID);
+            move(game, "e2", "e4");
+            games.updateGame(game);
+
+            assertEquals(1, stored.writes);
+            assertEquals(0, games.getDirtyCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Close Writes Remaining Games")
+    public void closeFlushes() throws Exception {
+        int gameID;
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            Game game = games.getGame(gameID);
+            move(game, "e2", "e4");
+            games.updateGame(game);
+        }
+        assertEquals(ChessGame.TeamColor.BLACK, stored.getGame(gameID).game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Seat Changes Are Written At Once")
+    public void seatChangesWriteThrough() throws Exception {
+        try (CachingGameDAO games = cache(CachingGameDAO.Durability.WRITE_BEHIND)) {
+            int gameID = games.createGame(new Game(0, "white", null, "Game", new ChessGame())).gameID();
+            Game game = games.getGame(gameID);
+            games.updateGame(new Game(gameID, game.whiteUsername(), "black", game.gameName(), game.game()));
+
+            assertEquals(1, stored.writes);
+            assertEquals("black", games.listGameSummaries(0, 10, false).getFirst().blackUsername());
+            assertTrue(games.listGameSummaries(0, 10, true).isEmpty(), "The game has no open seat now");
+        }
+    }
+
+    @Test
+    @DisplayName("A Slow Write Holds Up Only Its Own Game")
+    public void perGameLocks() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryGameDAO slow = new MemoryGameDAO() {
+            @Override
+            public void updateGame(Game game) throws DataAccessException {
+                if ("Slow".equals(game.gameName())) {
+                    writing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.updateGame(game);
+            }
+        };
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try (CachingGameDAO games = new CachingGameDAO(slow, CachingGameDAO.Durability.WRITE_THROUGH, 10, 60_000)) {
+            int slowID = games.createGame(new Game(0, "white", "black", "Slow", new ChessGame())).gameID();
+            int fastID = games.createGame(new Game(0, "white", "black", "Fast", new ChessGame())).gameID();
+            Future<?> slowWrite = writers.submit(() -> {
+                games.updateGame(games.getGame(slowID));
+                return null;
+            });
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+            Future<?> fastWrite = writers.submit(() -> {
+                Game game = games.getGame(fastID);
+                move(game, "e2", "e4");
+                games.updateGame(game);
+                return null;
+            });
+            fastWrite.get(5, TimeUnit.SECONDS);
+            assertEquals(ChessGame.TeamColor.BLACK, slow.getGame(fastID).game().getTeamTurn());
+
+            release.countDown();
+            slowWrite.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Delete Waits For A Flush In Progress")
+    public void deleteDuringFlush() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryGameDAO slow = new MemoryGameDAO() {
+            @Override
+            public void updateGame(Game game) throws DataAccessException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.updateGame(game);
+            }
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (CachingGameDAO games = new CachingGameDAO(slow, CachingGameDAO.Durability.WRITE_BEHIND, 10, 60_000)) {
+            int gameID = games.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+            Game game = games.getGame(gameID);
+            move(game, "e2", "e4");
+            games.updateGame(game);
+
+            Future<?> flush = callers.submit(() -> {
+                games.flush();
+                return null;
+            });
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            Future<?> delete = callers.submit(() -> {
+                games.deleteAllGames();
+                return null;
+            });
+            Thread.sleep(100);
+            release.countDown();
+            flush.get(10, TimeUnit.SECONDS);
+            delete.get(10, TimeUnit.SECONDS);
+
+            assertTrue(slow.listGames().isEmpty(), "The flush should not write the game back after the delete");
+            assertNull(games.getGame(gameID));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A Slow Miss Does Not Undo A Concurrent Update")
+    public void missDuringUpdate() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The first read is held until the update has had its chance
+        MemoryGameDAO slow = new MemoryGameDAO() {
+            private boolean first = true;
+
+            @Override
+            public Game getGame(int gameID) throws DataAccessException {
+                Game game = super.getGame(gameID);
+                if (first) {
+                    first = false;
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return game;
+            }
+        };
+        int gameID = slow.createGame(new Game(0, "white", "black", "Game", new ChessGame())).gameID();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (CachingGameDAO games = new CachingGameDAO(slow, CachingGameDAO.Durability.WRITE_BEHIND, 10, 60_000)) {
+            Future<Game> miss = callers.submit(() -> games.getGame(gameID));
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+            Game moved = new Game(gameID, "white", "black", "Game", new ChessGame());
+            move(moved, "e2", "e4");
+            Future<?> update = callers.submit(() -> {
+                games.updateGame(moved);
+                return null;
+            });
+            Thread.sleep(100);
+            release.countDown();
+            miss.get(10, TimeUnit.SECONDS);
+            update.get(10, TimeUnit.SECONDS);
+
+            assertEquals(ChessGame.TeamColor.BLACK, games.getGame(gameID).game().getTeamTurn(),
+                    "The update should not be replaced by the older row");
+            games.flush();
+            assertEquals(ChessGame.TeamColor.BLACK, slow.getGame(gameID).game().getTeamTurn());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Games Are Evicted")
+    public void eviction() throws Exception {
+        try (CachingGameDAO games = new CachingGameDAO(stored, CachingGameDAO.Durability.WRITE_BEHIND, 2, 60_000)) {
+            int first = games.createGame(new Game(0, "white", "black", "First", new ChessGame())).gameID();
+            games.createGame(new Game(0, "white", "black", "Second", new ChessGame()));
+            games.createGame(new Game(0, "white", "black", "Third", new ChessGame()));
+
+            assertNotNull(games.getGame(first));
+            assertEquals(1, stored.reads, "The first game should have been evicted");
+        }
+    }
+}
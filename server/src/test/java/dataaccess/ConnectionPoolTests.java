@@ -0,0 +1,142 @@
+package dataaccess;
+
+import dataaccess.mysql.ConnectionPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    // Stands in for a JDBC connection; valid until broken, and counts rollbacks
+    private static class FakeConnection {
+        boolean closed;
+        boolean valid = true;
+        boolean autoCommit = true;
+        int rollbacks;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid && !closed;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rollbacks++;
+                            yield null;
+                        }
+                        default -> null;
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private ConnectionPool pool(ConnectionPool.Settings settings) {
+        return new ConnectionPool(() -> {
+            FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection.proxy();
+        }, settings);
+    }
+
+    @Test
+    @DisplayName("Closed Connections Are Reused")
+    public void reuse() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 100, 60_000, 60_000, 0))) {
+            try (Connection connection = pool.getConnection()) {
+                assertFalse(connection.isClosed());
+            }
+            try (Connection connection = pool.getConnection()) {
+                assertFalse(connection.isClosed());
+            }
+
+            assertEquals(1, opened.size(), "The second borrow should reuse the first connection");
+            assertFalse(opened.getFirst().closed, "Closing a pooled connection should not close the real one");
+            ConnectionPool.Stats stats = pool.getStats();
+            assertEquals(2, stats.borrowed());
+            assertEquals(1, stats.created());
+            assertEquals(1, stats.idle());
+            assertEquals(0, stats.active());
+        }
+    }
+
+    @Test
+    @DisplayName("Borrowing Times Out When The Pool Is Exhausted")
+    public void exhausted() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 50, 60_000, 60_000, 0))) {
+            Connection held = pool.getConnection();
+            assertThrows(DataAccessException.class, pool::getConnection);
+            assertEquals(1, pool.getStats().timeouts());
+
+            held.close();
+            assertThrows(SQLException.class, held::createStatement, "A returned connection cannot be used");
+            try (Connection connection = pool.getConnection()) {
+                assertNotNull(connection);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Old And Broken Connections Are Replaced")
+    public void lifetimeAndValidation() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 100, 60_000, 0, 0))) {
+            pool.getConnection().close();
+            opened.getFirst().valid = false;
+            pool.getConnection().close();
+
+            assertEquals(2, opened.size(), "A connection that fails validation should be replaced");
+            assertTrue(opened.getFirst().closed);
+        }
+
+        opened.clear();
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 100, 1, 60_000, 0))) {
+            pool.getConnection().close();
+            Thread.sleep(5);
+            pool.getConnection().close();
+
+            assertEquals(2, opened.size(), "A connection past its lifetime should be replaced");
+            assertTrue(opened.getFirst().closed);
+        }
+    }
+
+    @Test
+    @DisplayName("Open Transactions Are Rolled Back On Return")
+    public void rollbackOnReturn() throws Exception {
+        try (ConnectionPool pool = pool(ConnectionPool.Settings.DEFAULT)) {
+            try (Connection connection = pool.getConnection()) {
+                connection.setAutoCommit(false);
+            }
+            assertEquals(1, opened.getFirst().rollbacks);
+            assertTrue(opened.getFirst().autoCommit);
+        }
+    }
+
+    @Test
+    @DisplayName("Held Connections Are Reported As Leaks")
+    public void leakDetection() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 100, 60_000, 60_000, 100))) {
+            Connection held = pool.getConnection();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (pool.getStats().leaks() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, pool.getStats().leaks());
+            held.close();
+        }
+    }
+}
@@ -6,6 +6,9 @@ import dataaccess.mysql.DatabaseManager;
 import dataaccess.mysql.MySQLGameDAO;
 import model.Game;
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -106,4 +109,28 @@ public class GameDAOTests {
         Collection<Game> games = gameDAO.listGames();
         assertEquals(2, games.size(), "There should be exactly 2 games listed.");
     }
+
+    @Test
+    public void testMoveLogReplaysMoves() throws DataAccessException, InvalidMoveException {
+        if (!USE_MYSQL) {
+            return;
+        }
+        MySQLGameDAO moveLogDAO = new MySQLGameDAO(MySQLGameDAO.Storage.MOVE_LOG);
+        ChessGame chessGame = new ChessGame();
+        int gameID = moveLogDAO.createGame(new Game(0, "user1", "user2", "Move Log Game", chessGame)).gameID();
+
+        // Knights out and back, past a snapshot, updating after every move
+        int[][] knightMoves = {{1, 7, 3, 6}, {8, 7, 6, 6}, {3, 6, 1, 7}, {6, 6, 8, 7}};
+        for (int i = 0; i < MySQLGameDAO.SNAPSHOT_INTERVAL + 6; i++) {
+            int[] squares = knightMoves[i % knightMoves.length];
+            chessGame.makeMove(new ChessMove(new ChessPosition(squares[0], squares[1]),
+                    new ChessPosition(squares[2], squares[3]), null));
+            moveLogDAO.updateGame(new Game(gameID, "user1", "user2", "Move Log Game", chessGame));
+        }
+
+        Game retrievedGame = moveLogDAO.getGame(gameID);
+        assertEquals(chessGame, retrievedGame.game(), "Replaying the log should rebuild the position.");
+        assertEquals(chessGame.getPlyCount(), retrievedGame.game().getPlyCount(), "Replaying the log should rebuild the ply count.");
+        assertEquals(chessGame, gameDAO.listGames().iterator().next().game(), "Listing should replay the log too.");
+    }
 }
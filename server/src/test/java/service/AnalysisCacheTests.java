@@ -0,0 +1,125 @@
+package service;
+
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisCacheTests {
+
+    private static final AnalysisCache.Key FIRST = new AnalysisCache.Key(1L, 5, 1000);
+    private static final AnalysisCache.Key SECOND = new AnalysisCache.Key(2L, 5, 1000);
+    private static final AnalysisCache.Key THIRD = new AnalysisCache.Key(3L, 5, 1000);
+
+    private AtomicInteger searches;
+
+    @BeforeEach
+    public void setUp() {
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Repeated Request Is Served From Cache")
+    public void cachedResult() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4, 60_000);
+
+        SearchResult first = cache.get(FIRST, this::search).get();
+        SearchResult second = cache.get(FIRST, this::search).get();
+
+        assertSame(first, second, "The cached result should be returned");
+        assertEquals(1, searches.get(), "Only one search should run");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent Requests Share One Search")
+    public void singleFlight() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4, 60_000);
+        CompletableFuture<SearchResult> running = new CompletableFuture<>();
+
+        CompletableFuture<SearchResult> first = cache.get(FIRST, () -> {
+            searches.incrementAndGet();
+            return running;
+        });
+        CompletableFuture<SearchResult> second = cache.get(FIRST, this::search);
+        assertFalse(second.isDone(), "The second request should wait for the running search");
+
+        running.complete(result());
+        assertSame(first.get(), second.get(), "Both requests should get the same result");
+        assertEquals(1, searches.get(), "Only one search should run");
+        assertEquals(1, cache.getJoinCount());
+    }
+
+    @Test
+    @DisplayName("Joiners Beyond The Limit Are Turned Away")
+    public void joinerLimit() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4, 60_000, 2);
+        CompletableFuture<SearchResult> running = new CompletableFuture<>();
+
+        cache.get(FIRST, () -> running);
+        cache.get(FIRST, this::search);
+        cache.get(FIRST, this::search);
+        assertThrows(RejectedExecutionException.class, () -> cache.get(FIRST, this::search),
+                "A third joiner should not be left waiting");
+        assertEquals(2, cache.getJoinCount());
+
+        running.complete(result());
+        assertNotNull(cache.get(FIRST, this::search).get(), "Once finished, the result should be served");
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Result Is Evicted")
+    public void leastRecentlyUsedEviction() throws Exception {
+        AnalysisCache cache = new AnalysisCache(2, 60_000);
+        cache.get(FIRST, this::search).get();
+        cache.get(SECOND, this::search).get();
+        cache.get(FIRST, this::search).get(); // FIRST is now the most recently used
+        cache.get(THIRD, this::search).get();
+
+        assertEquals(2, cache.size());
+        assertEquals(3, searches.get());
+        cache.get(FIRST, this::search).get();
+        assertEquals(3, searches.get(), "FIRST should still be cached");
+        cache.get(SECOND, this::search).get();
+        assertEquals(4, searches.get(), "SECOND should have been evicted");
+    }
+
+    @Test
+    @DisplayName("Expired Result Is Searched Again")
+    public void expiry() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4, 1);
+        cache.get(FIRST, this::search).get();
+        Thread.sleep(5);
+        cache.get(FIRST, this::search).get();
+
+        assertEquals(2, searches.get(), "The expired result should not be used");
+    }
+
+    @Test
+    @DisplayName("Failed Search Is Not Cached")
+    public void failureNotCached() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4, 60_000);
+        assertThrows(RejectedExecutionException.class, () -> cache.get(FIRST, () -> {
+            throw new RejectedExecutionException("full");
+        }));
+
+        cache.get(FIRST, this::search).get();
+        assertEquals(1, searches.get(), "The next request should search again");
+        assertEquals(1, cache.size());
+    }
+
+    private CompletableFuture<SearchResult> search() {
+        searches.incrementAndGet();
+        return CompletableFuture.completedFuture(result());
+    }
+
+    private static SearchResult result() {
+        return new SearchResult(null, 0, 1, 1, List.of());
+    }
+}
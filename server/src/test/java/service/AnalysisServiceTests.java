@@ -0,0 +1,163 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.engine.SearchResult;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.AuthDAO;
+import dataaccess.interfaces.GameDAO;
+import dataaccess.memory.MemoryAuthDAO;
+import dataaccess.memory.MemoryGameDAO;
+import exception.ResponseException;
+import model.Game;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisServiceTests {
+
+    private static AuthDAO authDAO;
+    private static GameDAO gameDAO;
+
+    private static String validAuthToken;
+    private static int gameID;
+
+    @BeforeAll
+    public static void init() throws DataAccessException {
+        authDAO = new MemoryAuthDAO();
+        gameDAO = new MemoryGameDAO();
+
+        validAuthToken = "validAuthToken";
+        authDAO.addAuth(validAuthToken, "testUser");
+        gameID = gameDAO.createGame(new Game(0, null, null, "Analysis Game", new ChessGame())).gameID();
+    }
+
+    @Test
+    @DisplayName("Analyze - Success")
+    public void analyzeSuccess() throws DataAccessException, ResponseException {
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 1000, new AnalysisCache(16, 60_000))) {
+            SearchResult result = analysisService.analyze(gameID, 3, null, validAuthToken);
+
+            assertNotNull(result.bestMove(), "A best move should be found");
+            assertEquals(3, result.depth(), "Search should finish the requested depth");
+            assertEquals(result.bestMove(), result.principalVariation().getFirst(), "PV should start with the best move");
+        }
+    }
+
+    @Test
+    @DisplayName("Analyze - Unauthorized")
+    public void analyzeUnauthorized() {
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 1000, new AnalysisCache(16, 60_000))) {
+            ResponseException e = assertThrows(ResponseException.class,
+                    () -> analysisService.analyze(gameID, 1, null, "invalidAuthToken"));
+            assertEquals(401, e.statusCode(), "Unauthorized status code should be 401");
+        }
+    }
+
+    @Test
+    @DisplayName("Analyze - Bad Request")
+    public void analyzeBadRequest() {
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 1000, new AnalysisCache(16, 60_000))) {
+            ResponseException e = assertThrows(ResponseException.class,
+                    () -> analysisService.analyze(9999, 1, null, validAuthToken));
+            assertEquals(400, e.statusCode(), "Missing game status code should be 400");
+
+            e = assertThrows(ResponseException.class,
+                    () -> analysisService.analyze(gameID, 0, null, validAuthToken));
+            assertEquals(400, e.statusCode(), "Invalid depth status code should be 400");
+        }
+    }
+
+    @Test
+    @DisplayName("Analyze - Observers Share One Search")
+    public void analyzeSharedSearch() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        AnalysisCache cache = new AnalysisCache(16, 60_000);
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 1000, cache)) {
+            List<Future<SearchResult>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> analysisService.analyze(gameID, null, 500, validAuthToken)));
+            }
+
+            SearchResult first = results.getFirst().get();
+            for (Future<SearchResult> result : results) {
+                assertSame(first, result.get(), "Every observer should get the same search result");
+            }
+            assertEquals(1, cache.getMissCount(), "Only one search should run");
+            assertEquals(3, cache.getHitCount() + cache.getJoinCount(), "Other requests should share it");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Analyze - Rejected When Queue Is Full")
+    public void analyzeRejectedWhenBusy() throws Exception {
+        // Different positions, so the requests cannot share a search
+        List<Integer> gameIDs = new ArrayList<>();
+        int[] columns = {5, 4, 3, 6};
+        for (int column : columns) {
+            ChessGame chessGame = new ChessGame();
+            chessGame.makeMove(new ChessMove(ChessPosition.of(2, column), ChessPosition.of(4, column), null));
+            gameIDs.add(gameDAO.createGame(new Game(0, null, null, "Busy Game", chessGame)).gameID());
+        }
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 2000, new AnalysisCache(16, 60_000))) {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int id : gameIDs) {
+                statuses.add(callers.submit(() -> {
+                    try {
+                        analysisService.analyze(id, null, 2000, validAuthToken);
+                        return 200;
+                    } catch (ResponseException e) {
+                        return e.statusCode();
+                    }
+                }));
+            }
+
+            int rejected = 0;
+            for (Future<Integer> status : statuses) {
+                if (status.get() == 503) {
+                    rejected++;
+                }
+            }
+            // One search runs and one waits; the others cannot be queued
+            assertTrue(rejected >= 2, "Requests beyond the thread and queue should be rejected");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Analyze - Wait Is Capped At The Time Limit")
+    public void analyzeWaitCapped() throws Exception {
+        ChessGame chessGame = new ChessGame();
+        chessGame.makeMove(new ChessMove(ChessPosition.of(2, 7), ChessPosition.of(3, 7), null));
+        int slowGameID = gameDAO.createGame(new Game(0, null, null, "Slow Game", chessGame)).gameID();
+
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try (AnalysisService analysisService = new AnalysisService(gameDAO, authDAO, 1, 1, 3000, new AnalysisCache(16, 60_000))) {
+            // Holds the only analysis thread
+            callers.submit(() -> analysisService.analyze(slowGameID, null, 3000, validAuthToken));
+            Thread.sleep(200);
+
+            long start = System.nanoTime();
+            ResponseException e = assertThrows(ResponseException.class,
+                    () -> analysisService.analyze(gameID, null, 200, validAuthToken));
+            long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(503, e.statusCode(), "A search that cannot start in time should give up");
+            assertTrue(waitedMillis < 2000, "The request should wait about its own limit, waited " + waitedMillis);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameDAO;
+import dataaccess.memory.MemoryGameDAO;
+import model.Game;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BotServiceTests {
+
+    private static final String BOT = new BotService.BotSettings(2, 1000).username();
+
+    private GameDAO gameDAO;
+    private BotService botService;
+
+    @BeforeEach
+    public void setUp() {
+        gameDAO = new MemoryGameDAO();
+        botService = new BotService(gameDAO, 1, null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        botService.close();
+    }
+
+    @Test
+    @DisplayName("Bot Settings Round Trip Through Username")
+    public void settingsRoundTrip() {
+        BotService.BotSettings settings = new BotService.BotSettings(6, 250);
+
+        assertTrue(BotService.isBot(settings.username()));
+        assertEquals(settings, BotService.BotSettings.parse(settings.username()));
+        assertNull(BotService.BotSettings.parse("player1"), "Player usernames are not bots");
+        assertNull(BotService.BotSettings.parse("bot:nonsense"), "Malformed bot usernames are not bots");
+        assertThrows(IllegalArgumentException.class, () -> new BotService.BotSettings(0, 250));
+    }
+
+    @Test
+    @DisplayName("Bot Moves When It Is Its Turn")
+    public void botMovesOnItsTurn() throws DataAccessException, InterruptedException {
+        int gameID = gameDAO.createGame(new Game(0, BOT, "player1", "Bot Game", new ChessGame())).gameID();
+        CountDownLatch moved = new CountDownLatch(1);
+        AtomicReference<ChessMove> botMove = new AtomicReference<>();
+        botService.setMoveListener((id, username, color, move) -> {
+            assertEquals(gameID, id);
+            assertEquals(BOT, username);
+            assertEquals(ChessGame.TeamColor.WHITE, color);
+            botMove.set(move);
+            moved.countDown();
+        });
+
+        botService.onGameChanged(gameID);
+
+        assertTrue(moved.await(10, TimeUnit.SECONDS), "The bot should choose a move");
+        assertTrue(new ChessGame().teamValidMoves(ChessGame.TeamColor.WHITE).contains(botMove.get()),
+                "The bot's move should be legal");
+    }
+
+    @Test
+    @DisplayName("Bot Waits For Player's Turn")
+    public void botWaitsForPlayer() throws DataAccessException, InterruptedException {
+        int gameID = gameDAO.createGame(new Game(0, "player1", BOT, "Bot Game", new ChessGame())).gameID();
+        CountDownLatch moved = new CountDownLatch(1);
+        botService.setMoveListener((id, username, color, move) -> moved.countDown());
+
+        botService.onGameChanged(gameID);
+
+        assertFalse(moved.await(500, TimeUnit.MILLISECONDS), "The bot should not move for white");
+    }
+
+    @Test
+    @DisplayName("Bot Moves After A Change While Its Turn Was Pending")
+    public void changeWhilePending() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The first read returns the game as it was before the player's move
+        GameDAO slowGameDAO = new MemoryGameDAO() {
+            private boolean first = true;
+
+            @Override
+            public Game getGame(int gameID) throws DataAccessException {
+                Game game = super.getGame(gameID);
+                if (first) {
+                    first = false;
+                    game = new Game(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                            new ChessGame(game.game()));
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return game;
+            }
+        };
+        botService.close();
+        botService = new BotService(slowGameDAO, 1, null);
+        int gameID = slowGameDAO.createGame(new Game(0, "player1", BOT, "Bot Game", new ChessGame())).gameID();
+        CountDownLatch moved = new CountDownLatch(1);
+        botService.setMoveListener((id, username, color, move) -> moved.countDown());
+
+        botService.onGameChanged(gameID);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        Game game = slowGameDAO.getGame(gameID);
+        game.game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        slowGameDAO.updateGame(game);
+        botService.onGameChanged(gameID);
+        release.countDown();
+
+        assertTrue(moved.await(10, TimeUnit.SECONDS), "The bot should answer the move made while it was reading");
+    }
+}
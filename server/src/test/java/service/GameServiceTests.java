@@ -5,11 +5,17 @@ import dataaccess.interfaces.AuthDAO;
 import dataaccess.memory.MemoryGameDAO;
 import dataaccess.memory.MemoryAuthDAO;
 import model.Game;
+import model.GameSummary;
 import org.junit.jupiter.api.*;
 import exception.ResponseException;
 import dataaccess.DataAccessException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,4 +176,91 @@ public class GameServiceTests {
             fail("Unexpected DataAccessException thrown");
         }
     }
+
+    @Test
+    @DisplayName("List Game Summaries - Pages")
+    public void listGameSummariesPages() throws DataAccessException, ResponseException {
+        for (int i = 1; i <= 5; i++) {
+            gameService.createGame("Game " + i, validAuthToken);
+        }
+
+        GameService.GamePage first = gameService.listGameSummaries(validAuthToken, null, 2, null);
+        assertEquals(2, first.games().size(), "First page should hold the limit");
+        assertNotNull(first.nextAfter(), "There should be another page");
+
+        GameService.GamePage second = gameService.listGameSummaries(validAuthToken, first.nextAfter(), 2, null);
+        GameService.GamePage last = gameService.listGameSummaries(validAuthToken, second.nextAfter(), 2, null);
+        assertEquals(1, last.games().size(), "Last page should hold the rest");
+        assertNull(last.nextAfter(), "There should be no page after the last");
+        assertEquals("Game 3", second.games().getFirst().gameName(), "Pages should continue in order");
+    }
+
+    @Test
+    @DisplayName("List Game Summaries - Open Seats")
+    public void listGameSummariesOpenSeats() throws DataAccessException, ResponseException {
+        Game full = gameService.createGame("Full Game", validAuthToken);
+        gameService.joinGame(full.gameID(), "WHITE", "white", validAuthToken);
+        gameService.joinGame(full.gameID(), "BLACK", "black", validAuthToken);
+        Game open = gameService.createGame("Open Game", validAuthToken);
+
+        GameService.GamePage page = gameService.listGameSummaries(validAuthToken, null, null, true);
+
+        assertEquals(1, page.games().size(), "Only the open game should be listed");
+        assertEquals(new GameSummary(open.gameID(), null, null, "Open Game"), page.games().getFirst());
+    }
+
+    @Test
+    @DisplayName("List Game Summaries - Bad Request")
+    public void listGameSummariesBadRequest() {
+        ResponseException e = assertThrows(ResponseException.class,
+                () -> gameService.listGameSummaries(validAuthToken, null, GameService.MAX_PAGE_SIZE + 1, null));
+        assertEquals(400, e.statusCode(), "Too large a page should be a bad request");
+    }
+
+    @Test
+    @DisplayName("Find Games - By Name")
+    public void findGamesByName() throws DataAccessException, ResponseException {
+        gameService.createGame("Other Game", validAuthToken);
+        Game wanted = gameService.createGame("Wanted Game", validAuthToken);
+
+        List<GameSummary> games = gameService.findGames(validAuthToken, "wanted game");
+
+        assertEquals(List.of(new GameSummary(wanted.gameID(), null, null, "Wanted Game")), games,
+                "Only the game with that name should be found, ignoring case");
+        assertTrue(gameService.findGames(validAuthToken, "Missing Game").isEmpty());
+
+        ResponseException e = assertThrows(ResponseException.class, () -> gameService.findGames(validAuthToken, " "));
+        assertEquals(400, e.statusCode(), "A blank name should be a bad request");
+    }
+
+    @Test
+    @DisplayName("Join Game - Concurrent Joins Take One Seat")
+    public void joinGameConcurrently() throws Exception {
+        Game game = gameService.createGame("Contested Game", validAuthToken);
+        ExecutorService players = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String username = "player" + i;
+                statuses.add(players.submit(() -> {
+                    try {
+                        gameService.joinGame(game.gameID(), "WHITE", username, validAuthToken);
+                        return 200;
+                    } catch (ResponseException e) {
+                        return e.statusCode();
+                    }
+                }));
+            }
+
+            int seated = 0;
+            for (Future<Integer> status : statuses) {
+                if (status.get() == 200) {
+                    seated++;
+                }
+            }
+            assertEquals(1, seated, "Only one player should get the white seat");
+        } finally {
+            players.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package chess;
+
+/**
+ * Precomputed attack tables for every square, and an "is this square attacked"
+ * test that looks outward from the square instead of generating enemy moves.
+ * <p>
+ * Rook and bishop attacks come from magic bitboard tables: the blockers on a
+ * slider's lines are multiplied by a per-square magic number, and the top bits of
+ * the product index a table of every attack set for that square. The tables are
+ * filled at class load from the magic numbers below.
+ * <p>
+ * Squares are Bitboard indexes (bit 0 is a1, bit 63 is h8).
+ */
+public final class Attacks {
+    // Ray directions as {row step, column step}. The first four step towards higher
+    // square indexes, the last four towards lower ones.
+    static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}};
+    static final int NORTH = 0;
+    static final int EAST = 1;
+    static final int NORTH_EAST = 2;
+    static final int NORTH_WEST = 3;
+    static final int SOUTH = 4;
+    static final int WEST = 5;
+    static final int SOUTH_WEST = 6;
+    static final int SOUTH_EAST = 7;
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    /**
+     * Lookup for one slider on one square. Attack sets for every blocker
+     * arrangement are stored from offset onward in the shared table.
+     */
+    private record Magic(long mask, long magic, int shift, int offset) {
+        int index(long occupied) {
+            return offset + (int) (((occupied & mask) * magic) >>> shift);
+        }
+    }
+
+    // Every rook attack set followed by every bishop attack set (102400 + 5248 entries)
+    private static final long[] SLIDER_ATTACKS;
+
+    // Found by trial with sparse random numbers; any number that maps each square's
+    // blocker arrangements without a harmful collision will do
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+            0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+            0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+            0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+            0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+            0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+            0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+            0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+            0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+            0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+            0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+            0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+            0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+            0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+            0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+            0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+            0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+            0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+            0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+    };
+
+    static {
+        int[][] knightJumps = {{1, 2}, {-1, 2}, {1, -2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}};
+        for (int square = 0; square < 64; square++) {
+            int row = Bitboard.row(square);
+            int col = Bitboard.column(square);
+            for (int[] jump : knightJumps) {
+                KNIGHT[square] |= bit(row + jump[0], col + jump[1]);
+            }
+            for (int dir = 0; dir < 8; dir++) {
+                KING[square] |= bit(row + DIRECTIONS[dir][0], col + DIRECTIONS[dir][1]);
+                for (int r = row + DIRECTIONS[dir][0], c = col + DIRECTIONS[dir][1];
+                     ChessBoard.inBounds(r, c); r += DIRECTIONS[dir][0], c += DIRECTIONS[dir][1]) {
+                    RAYS[dir][square] |= bit(r, c);
+                }
+            }
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+
+        long[] sliderAttacks = new long[102400 + 5248];
+        int offset = 0;
+        for (int square = 0; square < 64; square++) {
+            ROOK_MAGICS[square] = fillMagic(square, true, ROOK_MAGIC_NUMBERS[square], offset, sliderAttacks);
+            offset += 1 << (64 - ROOK_MAGICS[square].shift());
+        }
+        for (int square = 0; square < 64; square++) {
+            BISHOP_MAGICS[square] = fillMagic(square, false, BISHOP_MAGIC_NUMBERS[square], offset, sliderAttacks);
+            offset += 1 << (64 - BISHOP_MAGICS[square].shift());
+        }
+        SLIDER_ATTACKS = sliderAttacks;
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int row, int col) {
+        return ChessBoard.inBounds(row, col) ? 1L << Bitboard.square(row, col) : 0L;
+    }
+
+    /**
+     * @return the squares a knight on this square attacks
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return the squares a king on this square attacks
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of this color on this square attacks
+     */
+    public static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return every square from this square to the board edge in one direction, ignoring blockers
+     */
+    static long ray(int direction, int square) {
+        return RAYS[direction][square];
+    }
+
+    /**
+     * @return the squares a rook on this square attacks, stopping at the first piece in each direction
+     */
+    public static long rook(int square, long occupied) {
+        return SLIDER_ATTACKS[ROOK_MAGICS[square].index(occupied)];
+    }
+
+    /**
+     * @return the squares a bishop on this square attacks, stopping at the first piece in each direction
+     */
+    public static long bishop(int square, long occupied) {
+        return SLIDER_ATTACKS[BISHOP_MAGICS[square].index(occupied)];
+    }
+
+    /**
+     * @return the squares a queen on this square attacks, stopping at the first piece in each direction
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Rook attacks found by walking the rays. Used to fill the magic tables.
+     */
+    static long slidingRook(int square, long occupied) {
+        return slide(NORTH, square, occupied) | slide(EAST, square, occupied)
+                | slide(SOUTH, square, occupied) | slide(WEST, square, occupied);
+    }
+
+    /**
+     * Bishop attacks found by walking the rays. Used to fill the magic tables.
+     */
+    static long slidingBishop(int square, long occupied) {
+        return slide(NORTH_EAST, square, occupied) | slide(NORTH_WEST, square, occupied)
+                | slide(SOUTH_WEST, square, occupied) | slide(SOUTH_EAST, square, occupied);
+    }
+
+    private static long slide(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        // The nearest blocker is the lowest bit on rays heading up the board and the highest heading down
+        int blocker = direction < SOUTH ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker];
+    }
+
+    /**
+     * Fills the table slots for one slider on one square, starting at offset
+     *
+     * @throws IllegalStateException if the magic number sends two different attack sets to one slot
+     */
+    private static Magic fillMagic(int square, boolean isRook, long magicNumber, int offset, long[] table) {
+        // Edge squares never change the attack set, so they are left out of the mask
+        long edges = ((RANK_1 | RANK_8) & ~rankOf(Bitboard.row(square)))
+                | ((FILE_A | FILE_H) & ~fileOf(Bitboard.column(square)));
+        long mask = (isRook ? slidingRook(square, 0L) : slidingBishop(square, 0L)) & ~edges;
+        Magic magic = new Magic(mask, magicNumber, 64 - Long.bitCount(mask), offset);
+
+        boolean[] filled = new boolean[1 << Long.bitCount(mask)];
+        long subset = 0L;
+        do {
+            long attacks = isRook ? slidingRook(square, subset) : slidingBishop(square, subset);
+            int slot = magic.index(subset);
+            if (filled[slot - offset] && table[slot] != attacks) {
+                throw new IllegalStateException("Bad magic number for square " + square);
+            }
+            filled[slot - offset] = true;
+            table[slot] = attacks;
+            // Step to the next subset of the mask (carry-rippler)
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return magic;
+    }
+
+    private static long rankOf(int row) {
+        return RANK_1 << (8 * (row - 1));
+    }
+
+    private static long fileOf(int col) {
+        return FILE_A << (col - 1);
+    }
+
+    /**
+     * @return True if any piece of byColor attacks this square
+     */
+    public static boolean isSquareAttacked(Bitboard bits, int square, ChessGame.TeamColor byColor) {
+        ChessGame.TeamColor other = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((KNIGHT[square] & bits.pieces(byColor, ChessPiece.PieceType.KNIGHT)) != 0
+                || (PAWN[other.ordinal()][square] & bits.pieces(byColor, ChessPiece.PieceType.PAWN)) != 0
+                || (KING[square] & bits.pieces(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long occupied = bits.occupied();
+        long queens = bits.pieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (rook(square, occupied) & (bits.pieces(byColor, ChessPiece.PieceType.ROOK) | queens)) != 0
+                || (bishop(square, occupied) & (bits.pieces(byColor, ChessPiece.PieceType.BISHOP) | queens)) != 0;
+    }
+}
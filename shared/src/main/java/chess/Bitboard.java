@@ -0,0 +1,116 @@
+package chess;
+
+/**
+ * Bitboard representation of a chessboard: one 64-bit set for each of the
+ * 12 kinds of piece, plus occupancy masks for each team and the whole board.
+ * <p>
+ * Bit 0 is row 1, column 1 (a1) and bit 63 is row 8, column 8 (h8).
+ */
+public class Bitboard {
+    public static final int PIECE_KINDS = 12;
+
+    private final long[] pieces = new long[PIECE_KINDS];
+    private final long[] teams = new long[2];
+    private long occupied;
+    private long key; // Zobrist key of the pieces on the board
+
+    /**
+     * @return the square index (0-63) of a 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the square index (0-63) of a position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return the shared ChessPosition for a square index
+     */
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    /**
+     * @return the index (0-11) of the piece set holding this color and type
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public void add(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        pieces[pieceIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+        teams[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        key ^= Zobrist.piece(piece, square);
+    }
+
+    public void remove(int square, ChessPiece piece) {
+        long mask = ~(1L << square);
+        pieces[pieceIndex(piece.getTeamColor(), piece.getPieceType())] &= mask;
+        teams[piece.getTeamColor().ordinal()] &= mask;
+        occupied &= mask;
+        key ^= Zobrist.piece(piece, square);
+    }
+
+    public void clear() {
+        for (int i = 0; i < PIECE_KINDS; i++) {
+            pieces[i] = 0L;
+        }
+        teams[0] = 0L;
+        teams[1] = 0L;
+        occupied = 0L;
+        key = 0L;
+    }
+
+    /**
+     * @return the set of squares holding pieces of this color and type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return the set of squares holding pieces of this color
+     */
+    public long team(ChessGame.TeamColor color) {
+        return teams[color.ordinal()];
+    }
+
+    /**
+     * @return the set of squares holding any piece
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, kept up to date by add and remove
+     */
+    public long key() {
+        return key;
+    }
+
+    public boolean isOccupied(int square) {
+        return (occupied & (1L << square)) != 0;
+    }
+}
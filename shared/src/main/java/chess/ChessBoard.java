@@ -12,10 +12,24 @@ import java.util.Objects;
 public class ChessBoard {
     ChessPiece[][] squares = new ChessPiece[8][8];
 
+    // Built lazily from squares so boards restored by Gson get one too.
+    private transient Bitboard bitboard;
+
     public ChessBoard() {
 
     }
 
+    /**
+     * Copies another board. Pieces are immutable, so they are shared with the original.
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int i = 0; i < 8; i++) {
+            squares[i] = other.squares[i].clone();
+        }
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -23,13 +37,75 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(position.getRow(), position.getColumn(), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard, or clears the square if piece is null
+     *
+     * @param row   1-based row to add the piece to
+     * @param col   1-based column to add the piece to
+     * @param piece the piece to add
+     */
+    public void addPiece(int row, int col, ChessPiece piece) {
+        Bitboard bits = getBitboard();
+        int square = Bitboard.square(row, col);
+        ChessPiece oldPiece = squares[row - 1][col - 1];
+        if (oldPiece != null) {
+            bits.remove(square, oldPiece);
+        }
+        if (piece != null) {
+            bits.add(square, piece);
+        }
+        squares[row - 1][col - 1] = piece;
+    }
+
+    /**
+     * Adds a chess piece to the chessboard, or clears the square if piece is null
+     *
+     * @param square Bitboard index (0-63) of the square
+     * @param piece  the piece to add
+     */
+    public void addPieceAt(int square, ChessPiece piece) {
+        addPiece((square >>> 3) + 1, (square & 7) + 1, piece);
     }
 
+    /**
+     * The returned array is the board's own storage and should be treated as read-only;
+     * use addPiece to change the board.
+     */
     public ChessPiece[][] getSquares() {
         return squares;
     }
 
+    /**
+     * Works out what a move wins or loses once both sides have finished recapturing
+     * on its end square, without making any moves. See StaticExchange.
+     *
+     * @param move a move for the piece on its start square
+     * @return centipawns won by the side making the move (negative if it loses material)
+     */
+    public int staticExchange(ChessMove move) {
+        return StaticExchange.evaluate(this, PackedMove.fromChessMove(move));
+    }
+
+    /**
+     * @return the bitboard sets for the pieces on this board
+     */
+    public Bitboard getBitboard() {
+        if (bitboard == null) {
+            bitboard = new Bitboard();
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    if (squares[i][j] != null) {
+                        bitboard.add(i * 8 + j, squares[i][j]);
+                    }
+                }
+            }
+        }
+        return bitboard;
+    }
+
     /**
      * Gets a chess piece on the chessboard
      *
@@ -41,6 +117,32 @@ public class ChessBoard {
         return squares[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard without building a ChessPosition
+     *
+     * @param row 1-based row to get the piece from
+     * @param col 1-based column to get the piece from
+     * @return Either the piece at the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int row, int col) {
+        return squares[row - 1][col - 1];
+    }
+
+    /**
+     * @param square Bitboard index (0-63) of the square
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPieceAt(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return True if the 1-based row and column are on the board
+     */
+    public static boolean inBounds(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
@@ -57,6 +159,7 @@ public class ChessBoard {
                 squares[i][j] = null;
             }
         }
+        getBitboard().clear();
     }
 
     private void setTeamPieces(ChessGame.TeamColor color) {
@@ -64,30 +167,30 @@ public class ChessBoard {
         int backRow;
 
         if (color == ChessGame.TeamColor.WHITE) {
-            frontRow = 1;
-            backRow = 0;
+            frontRow = 2;
+            backRow = 1;
         } else {
-            frontRow = 6;
-            backRow = 7;
+            frontRow = 7;
+            backRow = 8;
         }
 
         // Populate the pawns
-        for (int i = 0; i < 8; i++) {
-            squares[frontRow][i] = new ChessPiece(color, ChessPiece.PieceType.PAWN);
+        for (int i = 1; i <= 8; i++) {
+            addPiece(frontRow, i, ChessPiece.of(color, ChessPiece.PieceType.PAWN));
         }
 
         // Populate the backRow
-        squares[backRow][4] = new ChessPiece(color, ChessPiece.PieceType.KING);
-        squares[backRow][3] = new ChessPiece(color, ChessPiece.PieceType.QUEEN);
+        addPiece(backRow, 5, ChessPiece.of(color, ChessPiece.PieceType.KING));
+        addPiece(backRow, 4, ChessPiece.of(color, ChessPiece.PieceType.QUEEN));
 
-        squares[backRow][0] = new ChessPiece(color, ChessPiece.PieceType.ROOK);
-        squares[backRow][7] = new ChessPiece(color, ChessPiece.PieceType.ROOK);
+        addPiece(backRow, 1, ChessPiece.of(color, ChessPiece.PieceType.ROOK));
+        addPiece(backRow, 8, ChessPiece.of(color, ChessPiece.PieceType.ROOK));
 
-        squares[backRow][1] = new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
-        squares[backRow][6] = new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
+        addPiece(backRow, 2, ChessPiece.of(color, ChessPiece.PieceType.KNIGHT));
+        addPiece(backRow, 7, ChessPiece.of(color, ChessPiece.PieceType.KNIGHT));
 
-        squares[backRow][2] = new ChessPiece(color, ChessPiece.PieceType.BISHOP);
-        squares[backRow][5] = new ChessPiece(color, ChessPiece.PieceType.BISHOP);
+        addPiece(backRow, 3, ChessPiece.of(color, ChessPiece.PieceType.BISHOP));
+        addPiece(backRow, 6, ChessPiece.of(color, ChessPiece.PieceType.BISHOP));
     }
 
     @Override
@@ -104,7 +207,8 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        // Equal boards have equal Zobrist keys, and the key is already up to date
+        return Long.hashCode(getBitboard().key());
     }
 
     @Override
@@ -1,7 +1,19 @@
 package chess;
 
-import java.util.ArrayList;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Objects;
 
 /**
@@ -10,20 +22,81 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGame.SavedGameAdapterFactory.class)
 public class ChessGame {
+    // Castling rights bits
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
     private ChessBoard gameBoard;
     private TeamColor whoseTurn;
     private String invalidMoveException;
     private ChessPosition whiteKingPosition;
     private ChessPosition blackKingPosition;
     private boolean gameIsOver = false;
+    private int castlingRights;
+    private ChessPosition enPassantSquare; // The square a pawn skipped over with a double move, if it just did
+    private int ply; // Moves made since the start of the game
+
+    // The moves that led to ply, as PackedMoves, as far back as this object knows them; not part of the saved game.
+    // A game loaded or set up from a position starts with none, and copies keep the original's.
+    private transient int[] moveRecord = new int[16];
+    private transient int moveRecordSize;
+
+    // Undo information for every move applied with doMove; not part of the saved game.
+    private transient Deque<MoveUndo> history = new ArrayDeque<>();
+
+    // Castling rights given up when a piece moves from or is captured on each square
+    private static final int[] CASTLING_RIGHTS_LOST = new int[64];
+
+    static {
+        CASTLING_RIGHTS_LOST[Bitboard.square(1, 5)] = WHITE_KING_SIDE | WHITE_QUEEN_SIDE;
+        CASTLING_RIGHTS_LOST[Bitboard.square(1, 8)] = WHITE_KING_SIDE;
+        CASTLING_RIGHTS_LOST[Bitboard.square(1, 1)] = WHITE_QUEEN_SIDE;
+        CASTLING_RIGHTS_LOST[Bitboard.square(8, 5)] = BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+        CASTLING_RIGHTS_LOST[Bitboard.square(8, 8)] = BLACK_KING_SIDE;
+        CASTLING_RIGHTS_LOST[Bitboard.square(8, 1)] = BLACK_QUEEN_SIDE;
+    }
 
     public ChessGame() {
         this.gameBoard = new ChessBoard();
         this.gameBoard.resetBoard(); // Reset the board when you make a game.
         this.whoseTurn = TeamColor.WHITE; // White starts
-        this.whiteKingPosition = null;
-        this.blackKingPosition = null;
+        this.castlingRights = ALL_CASTLING_RIGHTS;
+        this.enPassantSquare = null;
+        findKings();
+    }
+
+    /**
+     * Copies another game's position and state, so the copy can be searched or
+     * changed independently. The copy starts with no moves to undo.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.gameBoard = new ChessBoard(other.gameBoard);
+        this.whoseTurn = other.whoseTurn;
+        this.invalidMoveException = other.invalidMoveException;
+        this.whiteKingPosition = other.whiteKingPosition;
+        this.blackKingPosition = other.blackKingPosition;
+        this.gameIsOver = other.gameIsOver;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.ply = other.ply;
+        this.moveRecord = other.moveRecord.clone();
+        this.moveRecordSize = other.moveRecordSize;
+    }
+
+    /**
+     * Everything doMove changes, so undoMove can put it back without rescanning the board
+     */
+    private record MoveUndo(int move, ChessPiece movedPiece, ChessPiece capturedPiece,
+                            int capturedSquare, ChessPosition whiteKingPosition,
+                            ChessPosition blackKingPosition, int castlingRights,
+                            ChessPosition enPassantSquare, TeamColor whoseTurn) {
     }
 
     /**
@@ -51,6 +124,70 @@ public class ChessGame {
         return gameBoard;
     }
 
+    /**
+     * @return the castling rights still available, as a mask of the *_SIDE bits
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Sets which castling moves are still allowed, for positions that did not come
+     * from setBoard's home-square guess (such as FEN strings)
+     *
+     * @param castlingRights a mask of the *_SIDE bits
+     */
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @return the square a pawn skipped over with a double move on the last move, or null
+     */
+    public ChessPosition getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @param enPassantSquare the square a pawn skipped over with a double move on the last move, or null
+     */
+    public void setEnPassantSquare(ChessPosition enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * @return how many moves have been made since the start of the game
+     */
+    public int getPlyCount() {
+        return ply;
+    }
+
+    /**
+     * @return the earliest ply whose move getRecordedMove can return; the moves before it
+     * were made before this game was loaded or set up
+     */
+    public int getFirstRecordedPly() {
+        return ply - moveRecordSize;
+    }
+
+    /**
+     * @param ply a ply from getFirstRecordedPly up to, but not including, getPlyCount
+     * @return the move made at that ply, as a PackedMove
+     * @throws IndexOutOfBoundsException if the move at that ply is not known
+     */
+    public int getRecordedMove(int ply) {
+        return moveRecord[Objects.checkIndex(ply - getFirstRecordedPly(), moveRecordSize)];
+    }
+
+    /**
+     * Restores the saved counters of a game decoded by GameCodec, after its position is set up
+     */
+    void restoreSavedState(int ply, boolean gameIsOver) {
+        this.ply = ply;
+        this.moveRecordSize = 0;
+        this.gameIsOver = gameIsOver;
+    }
+
     public Boolean getGameIsOver() {
         return gameIsOver;
     }
@@ -73,12 +210,38 @@ public class ChessGame {
         ChessGame chessGame = (ChessGame) o;
         return Objects.equals(gameBoard, chessGame.gameBoard) && whoseTurn == chessGame.whoseTurn && Objects.equals(invalidMoveException,
                 chessGame.invalidMoveException) && Objects.equals(whiteKingPosition, chessGame.whiteKingPosition) && Objects.equals(blackKingPosition,
-                chessGame.blackKingPosition);
+                chessGame.blackKingPosition) && castlingRights == chessGame.castlingRights && Objects.equals(enPassantSquare,
+                chessGame.enPassantSquare);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(gameBoard, whoseTurn, invalidMoveException, whiteKingPosition, blackKingPosition);
+        return Long.hashCode(getZobristKey());
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key for the position: the pieces, whose turn it is, the
+     * castling rights, and the en passant column when a pawn can capture there.
+     * Games in the same position have the same key, in any run. The board part is
+     * kept up to date as pieces move, so this takes a few XORs.
+     *
+     * @return the position's key
+     */
+    public long getZobristKey() {
+        long key = gameBoard.getBitboard().key() ^ Zobrist.castling(castlingRights);
+        if (whoseTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        if (enPassantSquare != null) {
+            // Only count the square if it can be used, so a double move with no pawn
+            // beside it gives the same key as reaching the position another way
+            int target = Bitboard.square(enPassantSquare);
+            TeamColor enemyColor = whoseTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+            if ((Attacks.pawn(enemyColor, target) & gameBoard.getBitboard().pieces(whoseTurn, ChessPiece.PieceType.PAWN)) != 0) {
+                key ^= Zobrist.enPassant(target);
+            }
+        }
+        return key;
     }
 
     /**
@@ -103,53 +266,12 @@ public class ChessGame {
             return null;  // No piece at this position
         }
 
-        // Get possible moves from the piece
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        Collection<ChessMove> possibleMoves = testPiece.pieceMoves(gameBoard, startPosition);
-
-
-        // Filter out invalid moves that leave the king in check
-        for (ChessMove move : possibleMoves) {
-            ChessPiece capPiece = gameBoard.getPiece(move.getEndPosition());
-
-            // Temporarily store the current king position
-            ChessPosition originalKingPosition = null;
-            boolean isKingMoving = testPiece.getPieceType() == ChessPiece.PieceType.KING;
-
-            // Update the king's position temporarily if it's the king moving
-            if (isKingMoving) {
-                if (testPiece.getTeamColor() == TeamColor.WHITE) {
-                    originalKingPosition = whiteKingPosition;
-                    whiteKingPosition = move.getEndPosition();
-                } else {
-                    originalKingPosition = blackKingPosition;
-                    blackKingPosition = move.getEndPosition();
-                }
-            }
-
-            // Perform the move temporarily
-            doMove(move, null, testPiece);
+        // Get possible moves from the piece, then filter out invalid moves that leave the king in check
+        MoveList moves = new MoveList();
+        addPossibleMoves(Bitboard.square(startPosition), testPiece, moves);
+        filterValidMoves(moves, 0, testPiece.getTeamColor());
 
-
-            // Is the King out of Check after the temporary move
-            if (!isInCheck(testPiece.getTeamColor())) {
-                validMoves.add(move);
-            }
-
-            // Undo the move to restore the board state
-            doMove(move, testPiece, capPiece);
-
-            // Restore the king's original position if the king moved
-            if (isKingMoving) {
-                if (testPiece.getTeamColor() == TeamColor.WHITE) {
-                    whiteKingPosition = originalKingPosition;
-                } else {
-                    blackKingPosition = originalKingPosition;
-                }
-            }
-        }
-
-        return validMoves;  // Return empty collection if no valid moves are found
+        return moves.toChessMoves();  // Return empty collection if no valid moves are found
     }
 
 
@@ -202,26 +324,232 @@ public class ChessGame {
         }
 
         // Perform the move
-        doMove(move, null, myPiece);
+        doMove(move);
+    }
+
+    /**
+     * Applies a move without checking that it is legal, recording what is needed to
+     * take it back with undoMove. Handles captures, promotion, castling and en passant,
+     * and passes the turn to the other team.
+     *
+     * @param move a move generated for the piece on its start square
+     */
+    public void doMove(ChessMove move) {
+        doMove(PackedMove.fromChessMove(move));
+    }
 
-        // Handle promotion if a promotion type is specified (aligning with Option 1)
-        if (move.getPromotionPiece() != null) {
-            myPiece = new ChessPiece(myPiece.getTeamColor(), move.getPromotionPiece());
-            gameBoard.addPiece(endPosition, myPiece);  // Update the board with promoted piece
+    /**
+     * Same as doMove(ChessMove), for a PackedMove
+     *
+     * @param move a PackedMove generated for the piece on its start square
+     */
+    public void doMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = gameBoard.getPieceAt(from);
+        TeamColor color = piece.getTeamColor();
+        ChessPiece.PieceType type = piece.getPieceType();
+
+        // A pawn moving diagonally onto an empty square is capturing en passant
+        int capturedSquare = to;
+        ChessPiece captured = gameBoard.getPieceAt(to);
+        if (type == ChessPiece.PieceType.PAWN && captured == null && (from & 7) != (to & 7)) {
+            capturedSquare = (from & ~7) | (to & 7);
+            captured = gameBoard.getPieceAt(capturedSquare);
+            gameBoard.addPieceAt(capturedSquare, null);
         }
 
+        history.push(new MoveUndo(move, piece, captured, capturedSquare, whiteKingPosition, blackKingPosition,
+                castlingRights, enPassantSquare, whoseTurn));
 
-        // Update the king's position if the piece is a king
-        if (myPiece.getPieceType() == ChessPiece.PieceType.KING) {
-            if (myPiece.getTeamColor() == TeamColor.WHITE) {
-                whiteKingPosition = endPosition;
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        gameBoard.addPieceAt(from, null);
+        gameBoard.addPieceAt(to, promotion == null ? piece : ChessPiece.of(color, promotion));
+
+        enPassantSquare = null;
+        if (type == ChessPiece.PieceType.KING) {
+            ChessPosition end = Bitboard.position(to);
+            if (color == TeamColor.WHITE) {
+                whiteKingPosition = end;
             } else {
-                blackKingPosition = endPosition;
+                blackKingPosition = end;
+            }
+
+            // A king moving two columns is castling, so bring the rook across
+            if (to - from == 2 || from - to == 2) {
+                int rookFrom = to > from ? from + 3 : from - 4;
+                int rookTo = (from + to) / 2;
+                gameBoard.addPieceAt(rookTo, gameBoard.getPieceAt(rookFrom));
+                gameBoard.addPieceAt(rookFrom, null);
             }
+        } else if (type == ChessPiece.PieceType.PAWN && (to - from == 16 || from - to == 16)) {
+            int skipped = (from + to) / 2;
+            enPassantSquare = Bitboard.position(skipped);
         }
 
-        // Switch turns
+        castlingRights &= ~CASTLING_RIGHTS_LOST[from] & ~CASTLING_RIGHTS_LOST[to];
         whoseTurn = (whoseTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+
+        if (moveRecordSize == moveRecord.length) {
+            moveRecord = Arrays.copyOf(moveRecord, moveRecordSize * 2);
+        }
+        moveRecord[moveRecordSize++] = move;
+        ply++;
+    }
+
+    /**
+     * Takes back the last move applied with doMove or makeMove
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        MoveUndo undo = history.poll();
+        if (undo == null) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int from = PackedMove.from(undo.move());
+        int to = PackedMove.to(undo.move());
+
+        gameBoard.addPieceAt(to, null);
+        gameBoard.addPieceAt(undo.capturedSquare(), undo.capturedPiece());
+        gameBoard.addPieceAt(from, undo.movedPiece());
+
+        // Put a castled rook back in its corner
+        if (undo.movedPiece().getPieceType() == ChessPiece.PieceType.KING && (to - from == 2 || from - to == 2)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = (from + to) / 2;
+            gameBoard.addPieceAt(rookFrom, gameBoard.getPieceAt(rookTo));
+            gameBoard.addPieceAt(rookTo, null);
+        }
+
+        whiteKingPosition = undo.whiteKingPosition();
+        blackKingPosition = undo.blackKingPosition();
+        castlingRights = undo.castlingRights();
+        enPassantSquare = undo.enPassantSquare();
+        whoseTurn = undo.whoseTurn();
+
+        // Every move in history is also at the end of the record
+        moveRecordSize--;
+        ply--;
+    }
+
+    /**
+     * @return how many moves can currently be taken back with undoMove
+     */
+    public int getHistorySize() {
+        return history.size();
+    }
+
+    /**
+     * Adds every valid move for the team whose turn it is, as PackedMove ints
+     *
+     * @param moves the list to add to
+     */
+    public void validMoves(MoveList moves) {
+        int start = moves.size();
+        addTeamMoves(whoseTurn, moves);
+        filterValidMoves(moves, start, whoseTurn);
+    }
+
+    /**
+     * Adds every move for the team whose turn it is, as PackedMove ints, including
+     * moves that leave its own king in check. Cheaper than validMoves when the
+     * caller will make the move anyway and can test isInCheck afterwards.
+     *
+     * @param moves the list to add to
+     */
+    public void possibleMoves(MoveList moves) {
+        addTeamMoves(whoseTurn, moves);
+    }
+
+    private void addTeamMoves(TeamColor color, MoveList moves) {
+        // Only visit the squares this team occupies
+        long teamPieces = gameBoard.getBitboard().team(color);
+        while (teamPieces != 0) {
+            int square = Long.numberOfTrailingZeros(teamPieces);
+            teamPieces &= teamPieces - 1;
+            addPossibleMoves(square, gameBoard.getPieceAt(square), moves);
+        }
+    }
+
+    private void addPossibleMoves(int square, ChessPiece piece, MoveList moves) {
+        piece.addMoves(gameBoard, square, moves);
+        addSpecialMoves(piece, square, moves);
+    }
+
+    // Keeps only the moves from index start onwards that do not leave color's king in check
+    private void filterValidMoves(MoveList moves, int start, TeamColor color) {
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isValidMove(move, color)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    private boolean isValidMove(int move, TeamColor color) {
+        doMove(move);
+        boolean valid = !isInCheck(color);
+        undoMove();
+        return valid;
+    }
+
+    /**
+     * Adds the castling and en passant moves that depend on game history rather than
+     * just the board. Castling is only added when the king is not in check and does
+     * not pass through an attacked square; landing in check is filtered by validMoves.
+     */
+    private void addSpecialMoves(ChessPiece piece, int square, MoveList moves) {
+        TeamColor color = piece.getTeamColor();
+
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            if (enPassantSquare == null) {
+                return;
+            }
+            int target = Bitboard.square(enPassantSquare);
+            ChessPiece passed = gameBoard.getPieceAt((square & ~7) | (target & 7));
+            if ((Attacks.pawn(color, square) & (1L << target)) != 0 && passed != null
+                    && passed.getPieceType() == ChessPiece.PieceType.PAWN && passed.getTeamColor() != color) {
+                moves.add(PackedMove.encode(square, target, PackedMove.EN_PASSANT | PackedMove.CAPTURE));
+            }
+            return;
+        }
+
+        int homeSquare = color == TeamColor.WHITE ? Bitboard.square(1, 5) : Bitboard.square(8, 5);
+        if (piece.getPieceType() != ChessPiece.PieceType.KING || square != homeSquare) {
+            return;
+        }
+        int kingSide = color == TeamColor.WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        int queenSide = color == TeamColor.WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        if ((castlingRights & (kingSide | queenSide)) == 0 || isInCheck(color)) {
+            return;
+        }
+        if ((castlingRights & kingSide) != 0 && canCastleThrough(square, square + 3, square + 1, square + 2)) {
+            moves.add(PackedMove.encode(square, square + 2, PackedMove.CASTLE));
+        }
+        if ((castlingRights & queenSide) != 0 && canCastleThrough(square, square - 4, square - 1, square - 2, square - 3)) {
+            moves.add(PackedMove.encode(square, square - 2, PackedMove.CASTLE));
+        }
+    }
+
+    private boolean canCastleThrough(int kingSquare, int rookSquare, int... emptySquares) {
+        ChessPiece king = gameBoard.getPieceAt(kingSquare);
+        ChessPiece rook = gameBoard.getPieceAt(rookSquare);
+        if (rook == null || rook.getPieceType() != ChessPiece.PieceType.ROOK || rook.getTeamColor() != king.getTeamColor()) {
+            return false;
+        }
+        for (int square : emptySquares) {
+            if (gameBoard.getPieceAt(square) != null) {
+                return false;
+            }
+        }
+
+        // The king may not pass through an attacked square
+        int passSquare = rookSquare > kingSquare ? kingSquare + 1 : kingSquare - 1;
+        TeamColor enemyColor = king.getTeamColor() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        return !Attacks.isSquareAttacked(gameBoard.getBitboard(), passSquare, enemyColor);
     }
 
 
@@ -235,7 +563,9 @@ public class ChessGame {
         // Get the king's position
         ChessPosition kingPosition;
         TeamColor enemyColor;
-        this.findKings();
+        if (whiteKingPosition == null || blackKingPosition == null) {
+            findKings(); // Older saved games did not track king positions
+        }
 
         if (teamColor == TeamColor.WHITE) {
             kingPosition = whiteKingPosition;
@@ -250,35 +580,29 @@ public class ChessGame {
             return false;
         }
 
-        // Get all the moves of the enemy team
-        Collection<ChessMove> enemyMoves = getTeamMoves(enemyColor);
-
-        // Loop through all the enemy moves to see if they overlap the king's position.
-        for (ChessMove move : enemyMoves) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true; // The king is in check
-            }
-        }
+        // Look outward from the king for any enemy piece that reaches it
+        return Attacks.isSquareAttacked(gameBoard.getBitboard(), Bitboard.square(kingPosition), enemyColor);
+    }
 
-        return false; // The king is not in check
+    /**
+     * Gets the valid moves for every piece on a team
+     *
+     * @param teamColor the team to get valid moves for
+     * @return all moves that team can legally make
+     */
+    public Collection<ChessMove> teamValidMoves(TeamColor teamColor) {
+        MoveList moves = new MoveList();
+        addTeamMoves(teamColor, moves);
+        filterValidMoves(moves, 0, teamColor);
+        return moves.toChessMoves();
     }
 
     private boolean hasValidMoves(TeamColor teamColor) {
-        for (int r = 1; r <= 8; r++) {
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition currPosition = new ChessPosition(r, c);
-                ChessPiece currPiece = gameBoard.getPiece(currPosition);
-
-                // If there is a piece of the current team
-                if (currPiece != null && currPiece.getTeamColor() == teamColor) {
-                    // Get valid moves for this piece
-                    Collection<ChessMove> validMoves = validMoves(currPosition);
-
-                    // Are there any valid moves?
-                    if (validMoves != null && !validMoves.isEmpty()) {
-                        return true;  // Found valid moves, so not in checkmate/stalemate
-                    }
-                }
+        MoveList moves = new MoveList();
+        addTeamMoves(teamColor, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (isValidMove(moves.get(i), teamColor)) {
+                return true;  // Found valid moves, so not in checkmate/stalemate
             }
         }
         return false;  // No valid moves found
@@ -325,50 +649,75 @@ public class ChessGame {
     public void setBoard(ChessBoard board) {
         this.gameBoard = board;
         findKings();
-    }
+        history.clear();
+        enPassantSquare = null;
+        ply = 0;
+        moveRecordSize = 0;
 
-    private Collection<ChessMove> getTeamMoves(TeamColor color) {
-        ChessPosition myPos;
-        ChessPiece myPiece;
-        Collection<ChessMove> teamMoves = new ArrayList<>();
+        castlingRights = homeSquareCastlingRights();
+    }
 
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                myPos = new ChessPosition(i, j);
-                myPiece = gameBoard.getPiece(myPos);
-                //Is there a piece && is it my team color?
-                if (myPiece != null && myPiece.getTeamColor() == color) {
-                    // add the piece moves to teamMoves
-                    teamMoves.addAll(myPiece.pieceMoves(gameBoard, myPos));
-                }
+    // Assumes a king and rook still on their home squares have not moved
+    private int homeSquareCastlingRights() {
+        int rights = 0;
+        for (int right : new int[]{WHITE_KING_SIDE, WHITE_QUEEN_SIDE, BLACK_KING_SIDE, BLACK_QUEEN_SIDE}) {
+            int row = (right == WHITE_KING_SIDE || right == WHITE_QUEEN_SIDE) ? 1 : 8;
+            int rookCol = (right == WHITE_KING_SIDE || right == BLACK_KING_SIDE) ? 8 : 1;
+            TeamColor color = row == 1 ? TeamColor.WHITE : TeamColor.BLACK;
+            if (isHomePiece(row, 5, color, ChessPiece.PieceType.KING) && isHomePiece(row, rookCol, color, ChessPiece.PieceType.ROOK)) {
+                rights |= right;
             }
         }
-
-        return teamMoves;
+        return rights;
     }
 
-    private void findKings() {
-        ChessPosition myPos;
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                myPos = new ChessPosition(i, j);
-                ChessPiece myPiece = gameBoard.getPiece(myPos);
-                // If there is a piece and it is a king
-                if (myPiece != null && myPiece.getPieceType() == ChessPiece.PieceType.KING) {
-                    if (myPiece.getTeamColor() == TeamColor.WHITE) {
-                        whiteKingPosition = myPos;
-                    } else {
-                        blackKingPosition = myPos;
-                    }
+    /**
+     * Reads games as Gson normally would, except that a game saved before castling rights
+     * were saved gets them from its home squares, as setBoard does, rather than the
+     * constructor's full set, which would allow castling after the king or rook has moved
+     */
+    static final class SavedGameAdapterFactory implements TypeAdapterFactory {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+            TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+            return new TypeAdapter<>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
                 }
 
-            }
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    JsonElement tree = elements.read(in);
+                    T value = delegate.fromJsonTree(tree);
+                    if (value instanceof ChessGame game && tree.isJsonObject()
+                            && !tree.getAsJsonObject().has("castlingRights")) {
+                        game.castlingRights = game.homeSquareCastlingRights();
+                    }
+                    return value;
+                }
+            };
         }
     }
 
-    private void doMove(ChessMove move, ChessPiece startSquare, ChessPiece endSquare) {
-        gameBoard.addPiece(move.getEndPosition(), endSquare);
-        gameBoard.addPiece(move.getStartPosition(), startSquare);
+    private boolean isHomePiece(int row, int col, TeamColor color, ChessPiece.PieceType type) {
+        ChessPiece piece = gameBoard.getPiece(row, col);
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+    }
+
+    private void findKings() {
+        whiteKingPosition = findKing(TeamColor.WHITE);
+        blackKingPosition = findKing(TeamColor.BLACK);
+    }
+
+    private ChessPosition findKing(TeamColor color) {
+        long kings = gameBoard.getBitboard().pieces(color, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            return null;
+        }
+        int square = Long.numberOfTrailingZeros(kings);
+        return Bitboard.position(square);
     }
 
 }
@@ -2,9 +2,7 @@ package chess;
 
 import chess.moves.*;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -17,11 +15,34 @@ public class ChessPiece {
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
+    // The 12 distinct pieces, indexed by team color and piece type
+    private static final ChessPiece[][] PIECES = new ChessPiece[2][6];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                PIECES[color.ordinal()][pieceType.ordinal()] = new ChessPiece(color, pieceType);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a piece. Pieces are immutable, so one instance
+     * of each color and type can be placed on any number of squares.
+     *
+     * @param pieceColor which team the piece belongs to
+     * @param type       which type of piece it is
+     * @return the piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -36,7 +57,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return 31 * pieceColor.ordinal() + type.ordinal();
     }
 
     @Override
@@ -56,12 +77,25 @@ public class ChessPiece {
      * The various different chess piece options
      */
     public enum PieceType {
-        KING,
-        QUEEN,
-        BISHOP,
-        KNIGHT,
-        ROOK,
-        PAWN
+        KING(0),
+        QUEEN(900),
+        BISHOP(330),
+        KNIGHT(320),
+        ROOK(500),
+        PAWN(100);
+
+        private final int value;
+
+        PieceType(int value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the material value of this piece type in centipawns (the king counts as 0)
+         */
+        public int value() {
+            return value;
+        }
     }
 
     /**
@@ -86,17 +120,33 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-
-        moves = switch (type) {
-            case KING -> new KingMoves().calculateMoves(board, myPosition);
-            case QUEEN -> new QueenMoves().calculateMoves(board, myPosition);
-            case BISHOP -> new BishopMoves().calculateMoves(board, myPosition);
-            case KNIGHT -> new KnightMoves().calculateMoves(board, myPosition);
-            case ROOK -> new RookMoves().calculateMoves(board, myPosition);
-            case PAWN -> new PawnMoves().calculateMoves(board, myPosition);
+        return switch (type) {
+            case KING -> KingMoves.INSTANCE.calculateMoves(board, myPosition);
+            case QUEEN -> QueenMoves.INSTANCE.calculateMoves(board, myPosition);
+            case BISHOP -> BishopMoves.INSTANCE.calculateMoves(board, myPosition);
+            case KNIGHT -> KnightMoves.INSTANCE.calculateMoves(board, myPosition);
+            case ROOK -> RookMoves.INSTANCE.calculateMoves(board, myPosition);
+            case PAWN -> PawnMoves.INSTANCE.calculateMoves(board, myPosition);
         };
+    }
 
-        return moves;
+    /**
+     * Adds all the moves this piece can make to a list of PackedMove ints.
+     * Does not take into account moves that are illegal due to leaving the king in
+     * danger
+     *
+     * @param board  the board the piece is on
+     * @param square Bitboard index of the piece
+     * @param moves  the list to add to
+     */
+    public void addMoves(ChessBoard board, int square, MoveList moves) {
+        switch (type) {
+            case KING -> KingMoves.INSTANCE.addMoves(board, square, moves);
+            case QUEEN -> QueenMoves.INSTANCE.addMoves(board, square, moves);
+            case BISHOP -> BishopMoves.INSTANCE.addMoves(board, square, moves);
+            case KNIGHT -> KnightMoves.INSTANCE.addMoves(board, square, moves);
+            case ROOK -> RookMoves.INSTANCE.addMoves(board, square, moves);
+            case PAWN -> PawnMoves.INSTANCE.addMoves(board, square, moves);
+        }
     }
 }
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,6 +8,17 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    // Every on-board position, shared so hot paths do not allocate one per square
+    private static final ChessPosition[][] POSITIONS = new ChessPosition[8][8];
+
+    static {
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                POSITIONS[i][j] = new ChessPosition(i + 1, j + 1);
+            }
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -24,6 +33,21 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for an on-board position. Positions off the board
+     * are not cached and get a new instance.
+     *
+     * @param row 1-based row
+     * @param col 1-based column
+     * @return the position
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[row - 1][col - 1];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -54,6 +78,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(getRow(), col);
+        return 31 * row + col;
     }
 }
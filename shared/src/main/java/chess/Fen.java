@@ -0,0 +1,140 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+ * The move clocks are accepted but not tracked.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final Map<Character, ChessPiece.PieceType> CHAR_TO_TYPE = Map.of(
+            'p', ChessPiece.PieceType.PAWN,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'b', ChessPiece.PieceType.BISHOP,
+            'r', ChessPiece.PieceType.ROOK,
+            'q', ChessPiece.PieceType.QUEEN,
+            'k', ChessPiece.PieceType.KING);
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string
+     *
+     * @param fen the position to load
+     * @return a game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame toGame(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN needs 8 ranks: " + fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                ChessPiece.PieceType type = CHAR_TO_TYPE.get(Character.toLowerCase(c));
+                if (type == null || col > 8) {
+                    throw new IllegalArgumentException("Bad FEN rank '" + ranks[i] + "': " + fen);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(row, col++, ChessPiece.of(color, type));
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(fields[1].equals("b") ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+
+        int rights = 0;
+        for (char c : fields[2].toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> ChessGame.WHITE_KING_SIDE;
+                case 'Q' -> ChessGame.WHITE_QUEEN_SIDE;
+                case 'k' -> ChessGame.BLACK_KING_SIDE;
+                case 'q' -> ChessGame.BLACK_QUEEN_SIDE;
+                default -> 0;
+            };
+        }
+        game.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            game.setEnPassantSquare(ChessPosition.of(fields[3].charAt(1) - '0', fields[3].charAt(0) - 'a' + 1));
+        }
+        return game;
+    }
+
+    /**
+     * Writes a game's position as a FEN string, with both move clocks reported as zero and one
+     *
+     * @param game the game to describe
+     * @return the position in FEN
+     */
+    public static String fromGame(ChessGame game) {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(row, col);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = switch (piece.getPieceType()) {
+                    case KING -> 'k';
+                    case QUEEN -> 'q';
+                    case BISHOP -> 'b';
+                    case KNIGHT -> 'n';
+                    case ROOK -> 'r';
+                    case PAWN -> 'p';
+                };
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = game.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        }
+        if ((rights & ChessGame.WHITE_KING_SIDE) != 0) {
+            fen.append('K');
+        }
+        if ((rights & ChessGame.WHITE_QUEEN_SIDE) != 0) {
+            fen.append('Q');
+        }
+        if ((rights & ChessGame.BLACK_KING_SIDE) != 0) {
+            fen.append('k');
+        }
+        if ((rights & ChessGame.BLACK_QUEEN_SIDE) != 0) {
+            fen.append('q');
+        }
+        ChessPosition enPassant = game.getEnPassantSquare();
+        fen.append(' ').append(enPassant == null ? "-" : enPassant.toString()).append(" 0 1");
+        return fen.toString();
+    }
+}
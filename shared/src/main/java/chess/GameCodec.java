@@ -0,0 +1,100 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a game as a few dozen bytes for storage, in place of Gson JSON of its
+ * squares array, which runs to kilobytes and is slow to parse.
+ * <p>
+ * The layout is a version byte, then the board as 64 four-bit pieces, two to a byte
+ * with the lower square in the low bits: 0 for empty, 1 + the PieceType ordinal for
+ * white, 9 + the ordinal for black. Then a byte of flags (bit 0 black to move, bit 1
+ * game over, bits 4-7 the castling rights), the en passant square or 255 for none, and
+ * the ply count as a big-endian int. 39 bytes in all.
+ */
+public final class GameCodec {
+    public static final byte VERSION = 1;
+    public static final int LENGTH = 1 + 32 + 1 + 1 + 4;
+
+    private static final int BLACK = 8;
+    private static final int NO_EN_PASSANT = 0xFF;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return the encoded game, LENGTH bytes
+     */
+    public static byte[] encode(ChessGame game) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+        buffer.put(VERSION);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            buffer.put((byte) (pieceCode(board.getPieceAt(square)) | pieceCode(board.getPieceAt(square + 1)) << 4));
+        }
+
+        int flags = game.getCastlingRights() << 4;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            flags |= 1;
+        }
+        if (Boolean.TRUE.equals(game.getGameIsOver())) {
+            flags |= 2;
+        }
+        buffer.put((byte) flags);
+        ChessPosition enPassant = game.getEnPassantSquare();
+        buffer.put((byte) (enPassant == null ? NO_EN_PASSANT : Bitboard.square(enPassant)));
+        buffer.putInt(game.getPlyCount());
+        return buffer.array();
+    }
+
+    /**
+     * @param bytes a game from encode
+     * @return the game, with no moves recorded before its ply
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded game of version " + VERSION);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square += 2) {
+            int pair = buffer.get() & 0xFF;
+            board.addPieceAt(square, piece(pair & 0xF));
+            board.addPieceAt(square + 1, piece(pair >>> 4));
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        int flags = buffer.get() & 0xFF;
+        game.setTeamTurn((flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setCastlingRights(flags >>> 4);
+        int enPassant = buffer.get() & 0xFF;
+        game.setEnPassantSquare(enPassant == NO_EN_PASSANT ? null : Bitboard.position(enPassant));
+        game.restoreSavedState(buffer.getInt(), (flags & 2) != 0);
+        return game;
+    }
+
+    private static int pieceCode(ChessPiece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        return 1 + piece.getPieceType().ordinal() + (piece.getTeamColor() == ChessGame.TeamColor.BLACK ? BLACK : 0);
+    }
+
+    private static ChessPiece piece(int code) {
+        int type = (code & 7) - 1;
+        if (type < 0) {
+            return null;
+        }
+        if (type >= TYPES.length) {
+            throw new IllegalArgumentException("Bad piece code " + code);
+        }
+        return ChessPiece.of((code & BLACK) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE,
+                TYPES[type]);
+    }
+}
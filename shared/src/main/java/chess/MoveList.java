@@ -0,0 +1,82 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growable list of PackedMove ints, so generating moves does not box or
+ * allocate a ChessMove per move. Reuse one list per search depth by calling clear.
+ */
+public class MoveList {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from newSize onwards
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the moves from index start onwards as ChessMoves
+     */
+    public List<ChessMove> toChessMoves(int start) {
+        List<ChessMove> chessMoves = new ArrayList<>(size - start);
+        for (int i = start; i < size; i++) {
+            chessMoves.add(PackedMove.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    public List<ChessMove> toChessMoves() {
+        return toChessMoves(0);
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+/**
+ * Encodes a move in a single int so move lists can be kept in primitive arrays:
+ * <pre>
+ * bits  0-5   start square (Bitboard index)
+ * bits  6-11  end square
+ * bits 12-14  promotion piece (0 for none, otherwise PieceType ordinal + 1)
+ * bits 15-18  flags
+ * </pre>
+ * Use toChessMove and fromChessMove at the public API boundary.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    // Flags
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PAWN_PUSH = 2;
+    public static final int EN_PASSANT = 4;
+    public static final int CASTLE = 8;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | (flags << 15);
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 15);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static int flags(int move) {
+        return (move >>> 15) & 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the move as a ChessMove, with new start and end positions
+     */
+    public static ChessMove toChessMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        return new ChessMove(Bitboard.position(from),
+                Bitboard.position(to), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove. ChessMove does not say whether it captures, so no flags are set;
+     * ChessGame.doMove works out captures, castling and en passant from the board.
+     */
+    public static int fromChessMove(ChessMove move) {
+        return encode(Bitboard.square(move.getStartPosition()), Bitboard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+}
@@ -0,0 +1,106 @@
+package chess;
+
+/**
+ * Reads moves in Standard Algebraic Notation, as used in PGN, e.g. "e4", "Nbd7",
+ * "exd6", "e8=Q+", "O-O-O". Check, mate and annotation marks are ignored.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Finds the valid move a SAN string names in a game
+     *
+     * @param game the position the move is played in
+     * @param san  the move
+     * @return the move as a PackedMove
+     * @throws IllegalArgumentException if the string does not name exactly one valid move
+     */
+    public static int toMove(ChessGame game, String san) {
+        String text = san.replaceAll("[+#!?]", "");
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        ChessBoard board = game.getBoard();
+
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            boolean kingside = text.length() == 3;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if ((PackedMove.flags(move) & PackedMove.CASTLE) != 0
+                        && (PackedMove.to(move) > PackedMove.from(move)) == kingside) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Castling is not valid here: " + san);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        int equals = text.indexOf('=');
+        if (equals >= 0) {
+            promotion = pieceType(text.length() > equals + 1 ? text.charAt(equals + 1) : '?');
+            text = text.substring(0, equals);
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (!text.isEmpty() && Character.isUpperCase(text.charAt(0))) {
+            type = pieceType(text.charAt(0));
+            text = text.substring(1);
+        }
+        text = text.replace("x", "");
+        if (text.length() < 2) {
+            throw new IllegalArgumentException("Not a SAN move: " + san);
+        }
+
+        int to = square(text.charAt(text.length() - 2), text.charAt(text.length() - 1), san);
+        // Whatever is left before the destination tells apart pieces that could both move there
+        int fromFile = -1;
+        int fromRank = -1;
+        for (char c : text.substring(0, text.length() - 2).toCharArray()) {
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else {
+                throw new IllegalArgumentException("Not a SAN move: " + san);
+            }
+        }
+
+        int found = 0;
+        int count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) == to
+                    && board.getPieceAt(from).getPieceType() == type
+                    && PackedMove.promotion(move) == promotion
+                    && (fromFile < 0 || (from & 7) == fromFile)
+                    && (fromRank < 0 || (from >> 3) == fromRank)) {
+                found = move;
+                count++;
+            }
+        }
+        if (count != 1) {
+            throw new IllegalArgumentException((count == 0 ? "No valid move matches " : "Ambiguous move ") + san);
+        }
+        return found;
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> throw new IllegalArgumentException("Unknown piece letter: " + c);
+        };
+    }
+
+    private static int square(char file, char rank, String san) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new IllegalArgumentException("Not a SAN move: " + san);
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+}
@@ -0,0 +1,130 @@
+package chess;
+
+/**
+ * Static exchange evaluation: decides what a capture wins or loses if both sides keep
+ * recapturing on its square, always with their least valuable piece, without making
+ * any moves. Either side may stop recapturing when going on would lose more.
+ * <p>
+ * Attackers are found with the Attacks tables. As each one is used, it is taken out
+ * of the occupancy, so sliders lined up behind it (x-rays) join in. Pins and checks
+ * are not considered.
+ */
+public final class StaticExchange {
+    // What a king is worth when captured, so taking it always ends the exchange; PieceType values kings as 0
+    private static final int KING_VALUE = 20000;
+
+    // Cheapest first, for picking the least valuable attacker
+    private static final ChessPiece.PieceType[] BY_VALUE = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING};
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @return the value the exchange uses for a piece type, in centipawns
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return type == ChessPiece.PieceType.KING ? KING_VALUE : type.value();
+    }
+
+    /**
+     * Works out the material result of a move and the exchange it starts
+     *
+     * @param board the board before the move
+     * @param move  a PackedMove for the piece on its start square
+     * @return centipawns won by the side making the move (negative if it loses material)
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Bitboard bits = board.getBitboard();
+        ChessPiece mover = board.getPieceAt(from);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        long occupied = bits.occupied() & ~(1L << from);
+
+        // Gains for each capture in turn, from the point of view of the side making it
+        int[] gain = new int[32];
+        ChessPiece victim = board.getPieceAt(to);
+        if (victim != null) {
+            gain[0] = pieceValue(victim.getPieceType());
+        } else if (mover.getPieceType() == ChessPiece.PieceType.PAWN && (from & 7) != (to & 7)) {
+            gain[0] = pieceValue(ChessPiece.PieceType.PAWN); // en passant
+            occupied &= ~(1L << ((from & ~7) | (to & 7)));
+        }
+        int onSquare = pieceValue(mover.getPieceType());
+        if (promotion != null) {
+            gain[0] += pieceValue(promotion) - pieceValue(ChessPiece.PieceType.PAWN);
+            onSquare = pieceValue(promotion);
+        }
+
+        ChessGame.TeamColor side = other(mover.getTeamColor());
+        long attackers = attackersTo(bits, to, occupied);
+        int depth = 0;
+        while (true) {
+            long sideAttackers = attackers & bits.team(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            ChessPiece.PieceType attackerType = null;
+            long attacker = 0;
+            for (ChessPiece.PieceType type : BY_VALUE) {
+                long ofType = sideAttackers & bits.pieces(side, type);
+                if (ofType != 0) {
+                    attackerType = type;
+                    attacker = ofType & -ofType;
+                    break;
+                }
+            }
+            // A king may not recapture onto a square the other side still attacks
+            if (attackerType == ChessPiece.PieceType.KING && (attackers & ~attacker & bits.team(other(side))) != 0) {
+                break;
+            }
+
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = pieceValue(attackerType);
+            occupied &= ~attacker;
+            attackers = attackersTo(bits, to, occupied);
+            side = other(side);
+        }
+
+        // Each side chooses between recapturing and standing pat, from the last capture back
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * @return True if the move does not lose material once the exchange on its square is over
+     */
+    public static boolean isSafe(ChessBoard board, int move) {
+        return evaluate(board, move) >= 0;
+    }
+
+    // Every piece of either color in occupied that attacks the square
+    private static long attackersTo(Bitboard bits, int square, long occupied) {
+        long queens = bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)
+                | bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        long rooks = bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)
+                | bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK) | queens;
+        long bishops = bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP) | queens;
+        long attackers = (Attacks.pawn(ChessGame.TeamColor.BLACK, square) & bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN))
+                | (Attacks.pawn(ChessGame.TeamColor.WHITE, square) & bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN))
+                | (Attacks.knight(square) & (bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT)))
+                | (Attacks.king(square) & (bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)
+                | bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)))
+                | (Attacks.rook(square, occupied) & rooks)
+                | (Attacks.bishop(square, occupied) & bishops);
+        return attackers & occupied;
+    }
+
+    private static ChessGame.TeamColor other(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key
+ * for each piece on its square, plus keys for black to move, the castling rights
+ * and a capturable en passant file, so a move updates it with a few XORs.
+ * <p>
+ * The keys come from a fixed seed, so a position has the same key in every run
+ * and on every server.
+ */
+public final class Zobrist {
+    private static final long[][] PIECES = new long[Bitboard.PIECE_KINDS][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long[] seed = {0x5DEECE66DL};
+        for (long[] pieceKeys : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                pieceKeys[square] = next(seed);
+            }
+        }
+        // Each castling right gets a key and a set of rights is the XOR of its members,
+        // so losing one right is a single XOR whatever the others are
+        long[] rightKeys = {next(seed), next(seed), next(seed), next(seed)};
+        for (int rights = 0; rights < 16; rights++) {
+            for (int bit = 0; bit < 4; bit++) {
+                if ((rights & (1 << bit)) != 0) {
+                    CASTLING[rights] ^= rightKeys[bit];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = next(seed);
+        }
+        BLACK_TO_MOVE = next(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    // splitmix64, with the state kept in seed[0]
+    private static long next(long[] seed) {
+        long z = (seed[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the key for this piece on this square
+     */
+    public static long piece(ChessPiece piece, int square) {
+        return PIECES[Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the key for a mask of ChessGame castling rights bits
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * @return the key for an en passant capture onto this square's column
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT_FILE[square & 7];
+    }
+
+    /**
+     * @return the key XORed in when it is black's turn
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
@@ -0,0 +1,179 @@
+package chess.engine;
+
+import chess.Bitboard;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PackedMove;
+
+/**
+ * Static evaluation of a position: material plus a piece-square bonus for where
+ * each piece stands.
+ * <p>
+ * Every piece on a square adds a fixed amount, so a move changes the score by the
+ * values of the few squares it touches. The search keeps a running score with
+ * moveDelta instead of calling evaluate at every leaf.
+ * <p>
+ * Scores are in centipawns. The running score and moveDelta are from white's point of
+ * view; evaluate is from the side to move's.
+ */
+public final class Evaluation {
+    // Piece-square bonuses for white, laid out as the board is seen from white's side:
+    // the first row is row 8, the last is row 1. Black uses the same tables mirrored.
+    private static final int[][] PIECE_SQUARE = new int[6][];
+
+    static {
+        PIECE_SQUARE[ChessPiece.PieceType.KING.ordinal()] = new int[]{
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -20, -30, -30, -40, -40, -30, -30, -20,
+                -10, -20, -20, -20, -20, -20, -20, -10,
+                20, 20, 0, 0, 0, 0, 20, 20,
+                20, 30, 10, 0, 0, 10, 30, 20};
+        PIECE_SQUARE[ChessPiece.PieceType.QUEEN.ordinal()] = new int[]{
+                -20, -10, -10, -5, -5, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 5, 5, 5, 0, -10,
+                -5, 0, 5, 5, 5, 5, 0, -5,
+                0, 0, 5, 5, 5, 5, 0, -5,
+                -10, 5, 5, 5, 5, 5, 0, -10,
+                -10, 0, 5, 0, 0, 0, 0, -10,
+                -20, -10, -10, -5, -5, -10, -10, -20};
+        PIECE_SQUARE[ChessPiece.PieceType.BISHOP.ordinal()] = new int[]{
+                -20, -10, -10, -10, -10, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 10, 10, 5, 0, -10,
+                -10, 5, 5, 10, 10, 5, 5, -10,
+                -10, 0, 10, 10, 10, 10, 0, -10,
+                -10, 10, 10, 10, 10, 10, 10, -10,
+                -10, 5, 0, 0, 0, 0, 5, -10,
+                -20, -10, -10, -10, -10, -10, -10, -20};
+        PIECE_SQUARE[ChessPiece.PieceType.KNIGHT.ordinal()] = new int[]{
+                -50, -40, -30, -30, -30, -30, -40, -50,
+                -40, -20, 0, 0, 0, 0, -20, -40,
+                -30, 0, 10, 15, 15, 10, 0, -30,
+                -30, 5, 15, 20, 20, 15, 5, -30,
+                -30, 0, 15, 20, 20, 15, 0, -30,
+                -30, 5, 10, 15, 15, 10, 5, -30,
+                -40, -20, 0, 5, 5, 0, -20, -40,
+                -50, -40, -30, -30, -30, -30, -40, -50};
+        PIECE_SQUARE[ChessPiece.PieceType.ROOK.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                5, 10, 10, 10, 10, 10, 10, 5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                0, 0, 0, 5, 5, 0, 0, 0};
+        PIECE_SQUARE[ChessPiece.PieceType.PAWN.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                50, 50, 50, 50, 50, 50, 50, 50,
+                10, 10, 20, 30, 30, 20, 10, 10,
+                5, 5, 10, 25, 25, 10, 5, 5,
+                0, 0, 0, 20, 20, 0, 0, 0,
+                5, -5, -10, 0, 0, -10, -5, 5,
+                5, 10, 10, -20, -20, 10, 10, 5,
+                0, 0, 0, 0, 0, 0, 0, 0};
+    }
+
+    // Value plus bonus of each piece on each square, positive for white and negative
+    // for black, indexed by Bitboard.pieceIndex and square
+    private static final int[][] SCORES = new int[Bitboard.PIECE_KINDS][64];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int[] scores = SCORES[Bitboard.pieceIndex(color, type)];
+                for (int square = 0; square < 64; square++) {
+                    if (color == ChessGame.TeamColor.WHITE) {
+                        // Flip the row, as the table's first row is row 8
+                        scores[square] = type.value() + PIECE_SQUARE[type.ordinal()][square ^ 56];
+                    } else {
+                        scores[square] = -type.value() - PIECE_SQUARE[type.ordinal()][square];
+                    }
+                }
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the value of a piece type in centipawns (the king counts as 0)
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return type.value();
+    }
+
+    /**
+     * @return the value plus square bonus of a piece, positive for white and negative for black
+     */
+    public static int score(ChessPiece piece, int square) {
+        return SCORES[Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * Scores a whole board from scratch, walking the piece sets
+     *
+     * @return the score from white's point of view
+     */
+    public static int whiteScore(ChessBoard board) {
+        Bitboard bits = board.getBitboard();
+        int score = 0;
+        for (int piece = 0; piece < Bitboard.PIECE_KINDS; piece++) {
+            ChessGame.TeamColor color = ChessGame.TeamColor.values()[piece / 6];
+            long squares = bits.pieces(color, ChessPiece.PieceType.values()[piece % 6]);
+            while (squares != 0) {
+                score += SCORES[piece][Long.numberOfTrailingZeros(squares)];
+                squares &= squares - 1;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Works out how a move will change the score, from the board before the move is made
+     *
+     * @param board the board the move is about to be made on
+     * @param move  a PackedMove for the piece on its start square
+     * @return the change in the score from white's point of view
+     */
+    public static int moveDelta(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = board.getPieceAt(from);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+
+        int delta = -score(piece, from);
+        delta += promotion == null ? score(piece, to) : score(ChessPiece.of(piece.getTeamColor(), promotion), to);
+
+        ChessPiece captured = board.getPieceAt(to);
+        if (captured != null) {
+            delta -= score(captured, to);
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN && (from & 7) != (to & 7)) {
+            // En passant: the captured pawn is beside the start square
+            int capturedSquare = (from & ~7) | (to & 7);
+            delta -= score(board.getPieceAt(capturedSquare), capturedSquare);
+        }
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && (to - from == 2 || from - to == 2)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = (from + to) / 2;
+            ChessPiece rook = board.getPieceAt(rookFrom);
+            delta += score(rook, rookTo) - score(rook, rookFrom);
+        }
+        return delta;
+    }
+
+    /**
+     * @return the score in centipawns, from the point of view of the side to move
+     */
+    public static int evaluate(ChessGame game) {
+        int score = whiteScore(game.getBoard());
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,156 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Decides the order a Search tries moves in, since alpha-beta prunes most when the
+ * best move comes first. In order:
+ * <ol>
+ *     <li>the hash move from the transposition table or the last iteration</li>
+ *     <li>captures and promotions, most valuable victim first, then least valuable attacker (MVV-LVA)</li>
+ *     <li>the two killer moves for the ply: quiet moves that caused a cutoff in a sibling node</li>
+ *     <li>other quiet moves, by how often they have caused cutoffs anywhere (the history heuristic)</li>
+ * </ol>
+ * Moves are scored once and then picked best-first as the search asks for them, so
+ * a cutoff after the first few moves skips sorting the rest.
+ * <p>
+ * Holds per-search state in primitive arrays and is not thread-safe; each Search has its own.
+ */
+public class MoveOrdering {
+    private static final int HASH_MOVE = 1 << 30;
+    private static final int CAPTURE = 1 << 24;
+    private static final int FIRST_KILLER = 1 << 23;
+    private static final int SECOND_KILLER = FIRST_KILLER - 1;
+    // History scores are halved when one reaches this, so they stay below the killers
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final int[][] killers = new int[Search.MAX_PLY + 1][2];
+    // Cutoff counts weighted by depth, indexed by team color, start square and end square
+    private final int[] history = new int[2 * 64 * 64];
+    private final int[][] scores = new int[Search.MAX_PLY + 1][];
+
+    public MoveOrdering() {
+        for (int ply = 0; ply < scores.length; ply++) {
+            scores[ply] = new int[64];
+        }
+    }
+
+    /**
+     * Readies for a new search: killers are forgotten and history is aged, since both
+     * were learned in other positions
+     */
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 3;
+        }
+    }
+
+    /**
+     * Scores a ply's moves, ready for next
+     *
+     * @param board    the board the moves are for
+     * @param moves    the moves to order
+     * @param hashMove the move to try first, or 0
+     * @param ply      the ply the moves are for
+     */
+    public void score(ChessBoard board, MoveList moves, int hashMove, int ply) {
+        if (scores[ply].length < moves.size()) {
+            scores[ply] = new int[Math.max(moves.size(), scores[ply].length * 2)];
+        }
+        int[] plyScores = scores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == hashMove) {
+                plyScores[i] = HASH_MOVE;
+            } else if (isTactical(move)) {
+                plyScores[i] = CAPTURE + captureScore(board, move);
+            } else if (move == killers[ply][0]) {
+                plyScores[i] = FIRST_KILLER;
+            } else if (move == killers[ply][1]) {
+                plyScores[i] = SECOND_KILLER;
+            } else {
+                plyScores[i] = history[historyIndex(board.getPieceAt(PackedMove.from(move)).getTeamColor(), move)];
+            }
+        }
+    }
+
+    /**
+     * Moves the best-scored move from index onward into index and returns it
+     *
+     * @param moves the moves scored for this ply
+     * @param index how many moves have been taken already
+     * @param ply   the ply the moves were scored for
+     * @return the next move to try
+     */
+    public int next(MoveList moves, int index, int ply) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff
+     *
+     * @param color the team that made the move
+     * @param move  the move
+     * @param ply   the ply it was made at
+     * @param depth the remaining depth, so cutoffs near the root count for more
+     */
+    public void addCutoff(ChessGame.TeamColor color, int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        int index = historyIndex(color, move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * @return True if a move is a capture or promotion, which are not killers or history moves
+     */
+    public static boolean isTactical(int move) {
+        return PackedMove.isCapture(move) || PackedMove.promotion(move) != null;
+    }
+
+    private static int historyIndex(ChessGame.TeamColor color, int move) {
+        return (color.ordinal() << 12) | (PackedMove.from(move) << 6) | PackedMove.to(move);
+    }
+
+    private static int captureScore(ChessBoard board, int move) {
+        ChessPiece victim = board.getPieceAt(PackedMove.to(move));
+        int victimValue = victim != null ? Evaluation.pieceValue(victim.getPieceType())
+                : PackedMove.isCapture(move) ? Evaluation.pieceValue(ChessPiece.PieceType.PAWN) : 0; // en passant
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            victimValue += Evaluation.pieceValue(promotion);
+        }
+        return victimValue * 16 - Evaluation.pieceValue(board.getPieceAt(PackedMove.from(move)).getPieceType()) / 100;
+    }
+}
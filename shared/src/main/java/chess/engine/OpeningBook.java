@@ -0,0 +1,149 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Opening moves read from a book file made by OpeningBookBuilder.
+ * <p>
+ * The file is a header followed by fixed-size entries sorted by Zobrist key: the key,
+ * a PackedMove and the move's weight. A position's moves are adjacent. The file is
+ * memory-mapped, not read in, so a large book costs no heap and little start-up time.
+ * Lookups binary-search the mapping, and the OS pages in only the parts that are
+ * touched.
+ * <p>
+ * Safe to share between threads, as lookups only read the mapping.
+ */
+public class OpeningBook {
+    // "BOOK", then the format version
+    static final int MAGIC = 0x424F4F4B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    /**
+     * One book move for a position
+     *
+     * @param move   the move as a PackedMove
+     * @param weight how often it was played; moves are chosen in proportion to it
+     */
+    public record Entry(int move, int weight) {
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @param file a file written by OpeningBookBuilder
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book, or an unsupported version: " + file);
+            }
+            int size = buffer.getInt(8);
+            if (size < 0 || HEADER_BYTES + (long) size * ENTRY_BYTES != length) {
+                throw new IOException("Opening book is truncated: " + file);
+            }
+            return new OpeningBook(buffer, size);
+        }
+    }
+
+    /**
+     * @return how many moves the book holds, over all positions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key a position's Zobrist key
+     * @return the book moves for the position, most played first; empty if it is not in the book
+     */
+    public List<Entry> entries(long key) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = firstIndex(key); i < size && key(i) == key; i++) {
+            int offset = HEADER_BYTES + i * ENTRY_BYTES;
+            entries.add(new Entry(buffer.getInt(offset + 8), buffer.getInt(offset + 12)));
+        }
+        return entries;
+    }
+
+    /**
+     * Picks a book move for a game, at random in proportion to the moves' weights.
+     * Moves that are not valid in the game, which only a key collision could give, are skipped.
+     *
+     * @param game   the game to find a move for
+     * @param random the source of randomness
+     * @return the move, or null if the position is not in the book
+     */
+    public ChessMove bookMove(ChessGame game, RandomGenerator random) {
+        MoveList valid = new MoveList();
+        game.validMoves(valid);
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        for (Entry entry : entries(game.getZobristKey())) {
+            if (valid.contains(entry.move()) && entry.weight() > 0) {
+                entries.add(entry);
+                total += entry.weight();
+            }
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        long pick = random.nextLong(total);
+        for (Entry entry : entries) {
+            pick -= entry.weight();
+            if (pick < 0) {
+                return PackedMove.toChessMove(entry.move());
+            }
+        }
+        return PackedMove.toChessMove(entries.getLast().move());
+    }
+
+    // Index of the first entry whose key is at least key
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(int index) {
+        return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+}
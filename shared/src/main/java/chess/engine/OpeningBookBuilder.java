@@ -0,0 +1,208 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.San;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an OpeningBook file from games in PGN.
+ * <p>
+ * Every game is replayed for its first plies, and each position and move pair is
+ * counted. The count becomes the move's weight. Moves played fewer than a minimum number of times
+ * are left out, so one-off games do not put odd moves in the book.
+ * <p>
+ * Run as: {@code OpeningBookBuilder [--plies N] [--min-count N] -o book.bin games.pgn...}
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_PLIES = 24;
+    public static final int DEFAULT_MIN_COUNT = 2;
+
+    private record Key(long position, int move) {
+    }
+
+    private final int maxPlies;
+    private final int minCount;
+    private final Map<Key, Integer> counts = new HashMap<>();
+    private int games;
+    private int skippedGames;
+
+    public OpeningBookBuilder() {
+        this(DEFAULT_PLIES, DEFAULT_MIN_COUNT);
+    }
+
+    /**
+     * @param maxPlies how many plies of each game to add
+     * @param minCount how many times a move must be played to go in the book
+     */
+    public OpeningBookBuilder(int maxPlies, int minCount) {
+        if (maxPlies < 1 || minCount < 1) {
+            throw new IllegalArgumentException("Plies and minimum count must be positive");
+        }
+        this.maxPlies = maxPlies;
+        this.minCount = minCount;
+    }
+
+    /**
+     * Adds every game in PGN text. Tags, comments, variations, annotations and move
+     * numbers are skipped. A game with a move that cannot be read is added up to that move.
+     */
+    public void addPgn(Reader pgn) throws IOException {
+        List<String> moves = new ArrayList<>();
+        int commentDepth = 0;
+        int variationDepth = 0;
+        BufferedReader reader = new BufferedReader(pgn);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (commentDepth == 0 && variationDepth == 0 && line.startsWith("[")) {
+                if (!moves.isEmpty()) {
+                    addGame(moves); // The last game had no result
+                    moves.clear();
+                }
+                continue; // Tag pair
+            }
+            int semicolon = line.indexOf(';');
+            if (commentDepth == 0 && semicolon >= 0) {
+                line = line.substring(0, semicolon); // Comment to the end of the line
+            }
+            for (String token : line.replace("{", " { ").replace("}", " } ")
+                    .replace("(", " ( ").replace(")", " ) ").trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                if (token.equals("{")) {
+                    commentDepth++;
+                } else if (token.equals("}")) {
+                    commentDepth = Math.max(0, commentDepth - 1);
+                } else if (commentDepth > 0) {
+                    continue;
+                } else if (token.equals("(")) {
+                    variationDepth++;
+                } else if (token.equals(")")) {
+                    variationDepth = Math.max(0, variationDepth - 1);
+                } else if (variationDepth > 0 || token.startsWith("$")) {
+                    continue;
+                } else if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+                    addGame(moves);
+                    moves.clear();
+                } else {
+                    // Drop a move number stuck to the move, as in "1.e4" or "3...Nf6"
+                    String move = token.replaceFirst("^\\d+\\.+", "");
+                    if (!move.isEmpty() && !move.equals("e.p.")) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        if (!moves.isEmpty()) {
+            addGame(moves);
+        }
+    }
+
+    /**
+     * Adds one game from the start position
+     *
+     * @param sanMoves the game's moves in SAN
+     */
+    public void addGame(List<String> sanMoves) {
+        ChessGame game = new ChessGame();
+        games++;
+        for (int ply = 0; ply < Math.min(maxPlies, sanMoves.size()); ply++) {
+            int move;
+            try {
+                move = San.toMove(game, sanMoves.get(ply));
+            } catch (IllegalArgumentException e) {
+                skippedGames++;
+                return;
+            }
+            counts.merge(new Key(game.getZobristKey(), move), 1, Integer::sum);
+            game.doMove(move);
+        }
+    }
+
+    /**
+     * @return how many games have been added
+     */
+    public int getGameCount() {
+        return games;
+    }
+
+    /**
+     * @return how many games had a move that could not be read, and were added only up to it
+     */
+    public int getSkippedGameCount() {
+        return skippedGames;
+    }
+
+    /**
+     * Writes the book, sorted by position key and then by weight, most played first
+     *
+     * @return how many moves were written
+     */
+    public int write(Path file) throws IOException {
+        List<Map.Entry<Key, Integer>> entries = new ArrayList<>();
+        for (Map.Entry<Key, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() >= minCount) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> a.getKey().position() != b.getKey().position()
+                ? Long.compare(a.getKey().position(), b.getKey().position())
+                : Integer.compare(b.getValue(), a.getValue()));
+
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(0);
+            for (Map.Entry<Key, Integer> entry : entries) {
+                out.writeLong(entry.getKey().position());
+                out.writeInt(entry.getKey().move());
+                out.writeInt(entry.getValue());
+            }
+        }
+        return entries.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int plies = DEFAULT_PLIES;
+        int minCount = DEFAULT_MIN_COUNT;
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--plies" -> plies = Integer.parseInt(args[++i]);
+                case "--min-count" -> minCount = Integer.parseInt(args[++i]);
+                case "-o" -> output = Path.of(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (output == null || inputs.isEmpty()) {
+            System.err.println("Usage: OpeningBookBuilder [--plies N] [--min-count N] -o book.bin games.pgn...");
+            System.exit(1);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, minCount);
+        for (Path input : inputs) {
+            try (Reader reader = Files.newBufferedReader(input, StandardCharsets.ISO_8859_1)) {
+                builder.addPgn(reader);
+            }
+        }
+        int written = builder.write(output);
+        System.out.printf("Read %d games (%d with unreadable moves), wrote %d book moves to %s%n",
+                builder.getGameCount(), builder.getSkippedGameCount(), written, output);
+    }
+}
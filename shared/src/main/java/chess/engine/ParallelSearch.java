@@ -0,0 +1,162 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP search: every thread runs an ordinary Search on its own copy of the
+ * game, and they share one TranspositionTable. The threads speed each other up
+ * through the entries they leave in the table, with no other coordination.
+ * <p>
+ * The calling thread searches with the given limits. Helper threads search until it
+ * finishes and are then stopped. The result is the deepest finished iteration of any
+ * thread, preferring the calling thread's on a tie. A helper that has not returned by
+ * the caller's deadline, or shortly after the calling thread if that is later, is left to
+ * wind down and its result ignored; the next search waits for it before reusing its Search.
+ * <p>
+ * One search runs at a time; search is synchronized. Close the ParallelSearch to
+ * stop its helper threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+    // How long past the calling thread to wait for stopped helpers
+    private static final long HELPER_GRACE_NANOS = 50_000_000;
+
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+    // Helpers stopped but not yet returned when the last search gave up waiting for them
+    private final List<Future<SearchResult>> stragglers = new ArrayList<>();
+
+    /**
+     * Creates a parallel search with one thread per available processor and its own
+     * table of the default size
+     */
+    public ParallelSearch() {
+        this(Runtime.getRuntime().availableProcessors(), new TranspositionTable());
+    }
+
+    /**
+     * @param threads total threads to search with, including the calling thread
+     * @param table   the transposition table the threads share
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+
+        int pool = POOL_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-" + pool + "-helper-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return how many threads each search uses, including the calling thread
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * Asks a running search, from another thread, to stop
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Finds the best move for the side to move, using every thread
+     *
+     * @param position the game to search; it is copied, not changed
+     * @param limits   when to stop searching; the node limit applies to the calling thread
+     * @return the best move found, with nodes counted across all threads
+     */
+    public synchronized SearchResult search(ChessGame position, SearchLimits limits) {
+        long start = System.nanoTime();
+        long deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        for (Future<SearchResult> straggler : stragglers) {
+            waitFor(straggler, Long.MAX_VALUE);
+        }
+        stragglers.clear();
+
+        table.newSearch();
+        for (Search search : searches) {
+            search.clearStop();
+        }
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>();
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), 0, 0);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            // Half the helpers skip the first iteration, so threads drift apart sooner
+            int firstDepth = 1 + (i & 1);
+            helperResults.add(helpers.submit(() -> helper.run(position, helperLimits, firstDepth)));
+        }
+
+        SearchResult best = searches[0].run(position, limits, 1);
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+
+        long nodes = best.nodes();
+        long graceDeadline = System.nanoTime() + HELPER_GRACE_NANOS;
+        long joinDeadline = deadline == Long.MAX_VALUE ? graceDeadline : Math.max(deadline, graceDeadline);
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult helperResult = waitFor(future, joinDeadline);
+            if (helperResult == null) {
+                stragglers.add(future);
+                continue;
+            }
+            nodes += helperResult.nodes();
+            if (helperResult.depth() > best.depth() && helperResult.bestMove() != null) {
+                best = helperResult;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, best.principalVariation());
+    }
+
+    // Returns null if the helper has not finished by the deadline
+    private static SearchResult waitFor(Future<SearchResult> future, long deadline) {
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a search thread", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Search thread failed", ex.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
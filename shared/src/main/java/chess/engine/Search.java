@@ -0,0 +1,412 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.StaticExchange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Iterative-deepening alpha-beta search with principal-variation search and a
+ * quiescence search over captures and promotions.
+ * <p>
+ * Results are kept in a TranspositionTable, which several Search instances may share.
+ * A Search itself keeps per-ply move lists and is not thread-safe; use one instance
+ * per thread. The game passed to search is copied, so the caller's game is not changed.
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int MATE = 31000;
+    // Any score at least this far from zero is a forced mate
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int INFINITY = 32000;
+
+    // How many plies into quiescence every check evasion is still searched. Past this,
+    // quiet evasions that give check back could go on until MAX_PLY.
+    private static final int QUIESCENCE_EVASION_PLIES = 4;
+
+    // How many nodes to visit between checks of the clock and the stop flag
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final long[] keys = new long[MAX_PLY + 1];
+    // Running evaluation from white's point of view at each ply, updated move by move
+    private final int[] whiteScores = new int[MAX_PLY + 1];
+    private final TranspositionTable table;
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final SplittableRandom random = new SplittableRandom();
+    private volatile OpeningBook book;
+    private int[] previousPv = new int[0];
+
+    private ChessGame game;
+    private long nodes;
+    private long deadline;
+    private long maxNodes;
+    private int rootDepth;
+    private int completedDepth;
+    // Best root move of the current iteration so far, to fall back on if stopped during the first
+    private int rootBestMove;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+
+    /**
+     * Creates a search with its own transposition table of the default size
+     */
+    public Search() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param table the transposition table to read and fill, possibly shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * @param book the opening book to play from before searching, or null for none
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Asks a running search, from another thread, to stop. The search returns the
+     * result of its last finished iteration.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Finds the best move for the side to move
+     *
+     * @param position the game to search; it is copied, not changed
+     * @param limits   when to stop searching
+     * @return the best move found and its score; a move from the opening book is
+     * returned at once, with depth 0 and score 0, and so is any legal move if the search
+     * is stopped before its first iteration finishes
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        OpeningBook openingBook = book;
+        if (openingBook != null) {
+            ChessMove bookMove = openingBook.bookMove(position, random);
+            if (bookMove != null) {
+                return new SearchResult(bookMove, 0, 0, 0, List.of(bookMove));
+            }
+        }
+
+        clearStop();
+        table.newSearch();
+        return run(position, limits, 1);
+    }
+
+    /**
+     * Forgets an earlier stop request, ready for run. Done before handing the search
+     * to another thread, so a stop sent before that thread starts is not lost.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Searches without starting a new table generation, for one thread of a
+     * ParallelSearch
+     *
+     * @param firstDepth the depth of the first iteration; helpers vary it so threads
+     *                   sharing a table do not all search the same tree in step
+     */
+    SearchResult run(ChessGame position, SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        game = new ChessGame(position);
+        nodes = 0;
+        maxNodes = limits.maxNodes();
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        completedDepth = 0;
+        rootBestMove = 0;
+        aborted = false;
+        previousPv = new int[0];
+        ordering.newSearch();
+        whiteScores[0] = Evaluation.whiteScore(game.getBoard());
+
+        SearchResult result = new SearchResult(null, terminalScore(), 0, 0, List.of());
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            rootDepth = depth;
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (aborted || pvLength[0] == 0) {
+                break;
+            }
+            completedDepth = depth;
+            previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+            result = new SearchResult(PackedMove.toChessMove(previousPv[0]), score, depth, nodes, toChessMoves(previousPv));
+
+            // Stop once a mate is found within the searched depth, or when the next
+            // iteration would likely not finish in the time left
+            if (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) {
+                break;
+            }
+        }
+        if (result.bestMove() == null && aborted) {
+            // Stopped before the first iteration finished; any legal move beats none
+            ChessMove fallback = fallbackMove();
+            if (fallback != null) {
+                result = new SearchResult(fallback, 0, 0, nodes, List.of(fallback));
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.principalVariation());
+    }
+
+    // Score of the root position when it has no legal moves
+    private int terminalScore() {
+        MoveList moves = moveLists[0];
+        moves.clear();
+        game.validMoves(moves);
+        if (!moves.isEmpty()) {
+            return 0;
+        }
+        return game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        keys[ply] = game.getZobristKey();
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+
+        ChessGame.TeamColor us = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(us);
+        if (inCheck && ply < 2 * rootDepth) {
+            // Look one ply further at checks so forced lines are not cut short, but not
+            // forever, or a run of checks would never reach the horizon
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply, 0);
+        }
+        countNode();
+        if (ply >= MAX_PLY) {
+            return evaluate(ply);
+        }
+
+        // A deep enough earlier result can settle a null-window node outright. Nodes on
+        // the principal variation are always searched, so the PV stays complete.
+        long entry = table.probe(keys[ply]);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+                int stored = TranspositionTable.fromStored(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+        if (hashMove == 0 && ply < previousPv.length) {
+            hashMove = previousPv[ply];
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.possibleMoves(moves);
+        ordering.score(game.getBoard(), moves, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        int legalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, i, ply);
+            makeMove(move, ply);
+            if (game.isInCheck(us)) {
+                game.undoMove();
+                continue;
+            }
+            legalMoves++;
+
+            int score;
+            if (legalMoves == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // Later moves only need to be shown worse than the best so far; search
+                // them with a null window and re-search the ones that turn out better
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            game.undoMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    if (!MoveOrdering.isTactical(move)) {
+                        ordering.addCutoff(us, move, ply, depth);
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        // When every move failed low, none of them is known to be best
+        table.store(keys[ply], bound == TranspositionTable.UPPER_BOUND ? 0 : bestMove,
+                TranspositionTable.toStored(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures and promotions (or every evasion when in check) until the
+     * position is quiet, so the evaluation is not taken in the middle of an exchange
+     */
+    private int quiescence(int alpha, int beta, int ply, int quiescencePly) {
+        countNode();
+        pvLength[ply] = 0;
+        if (ply >= MAX_PLY) {
+            return evaluate(ply);
+        }
+
+        ChessGame.TeamColor us = game.getTeamTurn();
+        boolean inCheck = quiescencePly < QUIESCENCE_EVASION_PLIES && game.isInCheck(us);
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            // The side to move can usually do at least as well as standing still
+            bestScore = evaluate(ply);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.possibleMoves(moves);
+        ordering.score(game.getBoard(), moves, 0, ply);
+
+        int legalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, i, ply);
+            if (!inCheck && !MoveOrdering.isTactical(move)) {
+                break; // Captures and promotions come first, so only quiet moves are left
+            }
+            if (!inCheck && !StaticExchange.isSafe(game.getBoard(), move)) {
+                continue; // Losing the exchange will not raise the score above standing pat
+            }
+            makeMove(move, ply);
+            if (game.isInCheck(us)) {
+                game.undoMove();
+                continue;
+            }
+            legalMoves++;
+            int score = -quiescence(-beta, -alpha, ply + 1, quiescencePly + 1);
+            game.undoMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        if (inCheck && legalMoves == 0) {
+            return -MATE + ply;
+        }
+        return bestScore;
+    }
+
+    private void makeMove(int move, int ply) {
+        whiteScores[ply + 1] = whiteScores[ply] + Evaluation.moveDelta(game.getBoard(), move);
+        game.doMove(move);
+    }
+
+    private int evaluate(int ply) {
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? whiteScores[ply] : -whiteScores[ply];
+    }
+
+    // Same position as an earlier one with the same side to move, since the root
+    private boolean isRepetition(int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (keys[i] == keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    // The best root move searched so far, or else the first legal one
+    private ChessMove fallbackMove() {
+        if (rootBestMove != 0) {
+            return PackedMove.toChessMove(rootBestMove);
+        }
+        MoveList moves = moveLists[0];
+        moves.clear();
+        game.validMoves(moves);
+        return moves.isEmpty() ? null : PackedMove.toChessMove(moves.get(0));
+    }
+
+    private void countNode() {
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) != 0 && (maxNodes == 0 || nodes < maxNodes)) {
+            return;
+        }
+        if (stopRequested || (maxNodes > 0 && nodes >= maxNodes) || System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+    }
+
+    private static List<ChessMove> toChessMoves(int[] moves) {
+        List<ChessMove> chessMoves = new ArrayList<>(moves.length);
+        for (int move : moves) {
+            chessMoves.add(PackedMove.toChessMove(move));
+        }
+        return chessMoves;
+    }
+}
@@ -0,0 +1,40 @@
+package chess.engine;
+
+/**
+ * How far a search may go. The search stops at whichever limit it reaches first.
+ *
+ * @param maxDepth   deepest iteration to search, in plies
+ * @param timeMillis wall-clock budget in milliseconds, or 0 for no time limit
+ * @param maxNodes   node budget, or 0 for no node limit
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > Search.MAX_PLY) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + Search.MAX_PLY + ": " + maxDepth);
+        }
+        if (timeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Time and node limits cannot be negative");
+        }
+    }
+
+    /**
+     * @return limits that search to a fixed depth
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    /**
+     * @return limits that search as deep as they can in the given time
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(Search.MAX_PLY, timeMillis, 0);
+    }
+
+    /**
+     * @return limits that search as deep as they can within the given number of nodes
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(Search.MAX_PLY, 0, maxNodes);
+    }
+}
@@ -0,0 +1,26 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal moves
+ * @param score              centipawns from the point of view of the side to move; mates are
+ *                           scored near Search.MATE, less the number of plies to the mate
+ * @param depth              the deepest iteration that finished, or 0 for a move from the opening book
+ * @param nodes              positions visited, including quiescence
+ * @param principalVariation the expected line of play, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes,
+                           List<ChessMove> principalVariation) {
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+}
@@ -0,0 +1,205 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of search results keyed by Zobrist key, shared by any number of
+ * searching threads without locks.
+ * <p>
+ * Each entry is two longs in one flat array: the key XORed with the data, then the
+ * data. Two threads writing the same slot at once can leave one thread's key beside
+ * the other's data; the XOR no longer gives back the key, so a probe treats the torn
+ * entry as a miss instead of returning wrong data.
+ * <p>
+ * A slot keeps the deeper of its old and new results, unless the old one is from an
+ * earlier search or is for the same position.
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_SIZE_MB = 16;
+    // The largest table one long[] can hold
+    public static final int MAX_SIZE_MB = 8192;
+
+    // Bound types: the stored score is exact, at least this much, or at most this much
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    // Data layout: move in bits 0-19, score + 32768 in bits 20-35, depth in bits 36-43,
+    // bound in bits 44-45 and search generation in bits 46-53
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * Creates an empty table of the default size
+     */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates an empty table using at most the given memory. The entry count is
+     * rounded down to a power of two.
+     *
+     * @param sizeMb table size in megabytes, from 1 to MAX_SIZE_MB
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1 || sizeMb > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("Table size must be between 1 and " + MAX_SIZE_MB + " MB: " + sizeMb);
+        }
+        int slots = Integer.highestOneBit(sizeMb * 1024 * 64); // 16 bytes per slot
+        entries = new long[slots * 2];
+        mask = slots - 1;
+    }
+
+    /**
+     * @return how many positions the table can hold
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table. Not safe to call while a search is using it.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key the position's Zobrist key
+     * @return the stored data, to be read with the static accessors, or 0 if absent
+     */
+    public long probe(long key) {
+        int index = slot(key);
+        long data = entries[index + 1];
+        if ((entries[index] ^ data) != key || data == 0) {
+            return 0;
+        }
+        return data;
+    }
+
+    /**
+     * Stores a search result, if it should replace what is in the slot
+     *
+     * @param key   the position's Zobrist key
+     * @param move  the best PackedMove found, or 0
+     * @param score the score, already adjusted with toStored
+     * @param depth the remaining depth that was searched
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = slot(key);
+        long oldData = entries[index + 1];
+        boolean samePosition = (entries[index] ^ oldData) == key;
+        if (oldData != 0 && !samePosition && generation(oldData) == generation && depth(oldData) > depth) {
+            return;
+        }
+        if (samePosition && move == 0) {
+            move = move(oldData); // Keep the known best move when this search did not find one
+        }
+
+        long data = (move & 0xFFFFFL)
+                | ((long) (score + 32768) << SCORE_SHIFT)
+                | ((long) Math.max(0, Math.min(depth, 255)) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) generation << GENERATION_SHIFT);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * @return roughly how full the table is for the current search, in parts per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = entries[i * 2 + 1];
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private int slot(long key) {
+        return ((int) key & mask) * 2;
+    }
+
+    /**
+     * @return the best PackedMove in probed data, or 0
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    /**
+     * @return the stored score in probed data, to be adjusted with fromStored
+     */
+    public static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - 32768;
+    }
+
+    /**
+     * @return the remaining depth the probed data was searched to
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    /**
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+    /**
+     * Mate scores count plies from the root, but an entry can be reached at any ply,
+     * so they are stored as plies from the entry's position instead
+     *
+     * @return the score to store for a node at this ply
+     */
+    public static int toStored(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * @return the score to use at this ply for a stored score
+     */
+    public static int fromStored(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -4,52 +4,49 @@ import chess.*;
 
 import java.util.Collection;
 
+/**
+ * Move generator for one kind of piece. Generators hold no state, so each
+ * subclass is used through its single shared INSTANCE.
+ */
 public abstract class BaseMoves {
-    public abstract Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position);
-
-    protected void calculateBaseMoves(
-            ChessBoard board,
-            ChessPosition position,
-            Collection<ChessMove> moves,
-            int[][] directions,
-            boolean hasContinuousMovement
-    ) {
-        for (int[] direction : directions) {
-            // Initialize row and col
-            int row = position.getRow();
-            int col = position.getColumn();
-
-            while (true) {
-                // Update row and col by direction
-                row += direction[0];
-                col += direction[1];
-
-                // Is the updated position out of bounds?
-                if (row < 1 || row > 8 || col < 1 || col > 8) {
-                    break; // It's out of bounds, try a different direction
-                }
-
-                // Make a new Chess Position
-                ChessPosition newPosition = new ChessPosition(row, col);
-
-                // Is the space empty?
-                if (board.getPiece(newPosition) == null) {
-                    moves.add(new ChessMove(position, newPosition, null));
-                } else { // There is a piece there
-                    // Is it an enemy piece?
-                    if (board.getPiece(newPosition).getTeamColor() !=
-                            board.getPiece(position).getTeamColor()) {
-                        moves.add(new ChessMove(position, newPosition, null));
-                    }
-
-                    break; // We have either run into our own piece or added a capture move, stop moving in this direction.
-                }
+    /**
+     * Calculates this piece's moves as ChessMove objects.
+     * Does not check whether the move leaves the king in check.
+     *
+     * @param board    the board to move on
+     * @param position where the piece to move is
+     * @return the piece's moves
+     */
+    public Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position) {
+        MoveList moves = new MoveList();
+        addMoves(board, Bitboard.square(position), moves);
+        return moves.toChessMoves();
+    }
 
-                // Does this piece have continuous movement?
-                if (!hasContinuousMovement) {
-                    break; // Don't keep moving in that direction.
-                }
-            }
+    /**
+     * Adds this piece's moves as PackedMove ints, without allocating per move.
+     * Like calculateMoves, does not check whether the move leaves the king in check.
+     *
+     * @param board  the board to move on
+     * @param square Bitboard index of the piece to move
+     * @param moves  the list to add to
+     */
+    public abstract void addMoves(ChessBoard board, int square, MoveList moves);
+
+    /**
+     * Adds a move to each target square that is not held by the moving piece's team
+     */
+    protected void addTargetMoves(ChessBoard board, int square, long targets, MoveList moves) {
+        Bitboard bits = board.getBitboard();
+        ChessGame.TeamColor myColor = board.getPieceAt(square).getTeamColor();
+        long enemies = bits.team(myColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        targets &= ~bits.team(myColor);
+
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemies & (1L << target)) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.encode(square, target, flags));
         }
     }
 }
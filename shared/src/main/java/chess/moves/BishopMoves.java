@@ -1,22 +1,17 @@
 package chess.moves;
 
+import chess.Attacks;
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
+import chess.MoveList;
 
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+public class BishopMoves extends BaseMoves{
+    public static final BishopMoves INSTANCE = new BishopMoves();
 
-public class BishopMoves extends BaseMoves {
+    private BishopMoves() {
+    }
 
     @Override
-    public Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-        super.calculateBaseMoves(board, position, moves, directions, true);
-        return moves;
+    public void addMoves(ChessBoard board, int square, MoveList moves) {
+        addTargetMoves(board, square, Attacks.bishop(square, board.getBitboard().occupied()), moves);
     }
-
 }
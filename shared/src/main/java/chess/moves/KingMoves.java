@@ -1,18 +1,17 @@
 package chess.moves;
 
+import chess.Attacks;
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
-
-import java.util.ArrayList;
-import java.util.Collection;
+import chess.MoveList;
 
 public class KingMoves extends BaseMoves{
+    public static final KingMoves INSTANCE = new KingMoves();
+
+    private KingMoves() {
+    }
+
     @Override
-    public Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int[][] directions = {{1,0}, {-1,0}, {0,1}, {0,-1}, {1,1}, {1,-1}, {-1,1}, {-1,-1}};
-        super.calculateBaseMoves(board, position, moves, directions, false);
-        return moves;
+    public void addMoves(ChessBoard board, int square, MoveList moves) {
+        addTargetMoves(board, square, Attacks.king(square), moves);
     }
 }
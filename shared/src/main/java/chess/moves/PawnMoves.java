@@ -2,91 +2,51 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 public class PawnMoves extends BaseMoves{
-    @Override
-    public Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int startRow;
-        int endRow;
-        int direction;
+    public static final PawnMoves INSTANCE = new PawnMoves();
 
-        // Is the team color white?
-        if(board.getPiece(position).getTeamColor() == ChessGame.TeamColor.WHITE){
-            startRow = 2;
-            endRow = 8;
-            direction = 1;
-        }
-        else{ // Team color is Black
-            startRow = 7;
-            endRow = 1;
-            direction = -1;
-        }
+    private PawnMoves() {
+    }
 
-        int row = position.getRow();
-        int col = position.getColumn();
+    @Override
+    public void addMoves(ChessBoard board, int square, MoveList moves) {
+        Bitboard bits = board.getBitboard();
+        ChessGame.TeamColor myColor = board.getPieceAt(square).getTeamColor();
+        boolean isWhite = myColor == ChessGame.TeamColor.WHITE;
+        int step = isWhite ? 8 : -8;
+        int startRow = isWhite ? 2 : 7;
 
         // Handle forward movement
-        ChessPosition forward = new ChessPosition(row + direction, col);
-        ChessPosition doubleForward = new ChessPosition(row + 2*direction, col);
-
-        // Is the space empty?
-        if(board.getPiece(forward) == null){
-            addMove(position, forward, moves, endRow);
+        int forward = square + step;
+        if (!bits.isOccupied(forward)) {
+            addPackedMove(square, forward, 0, moves);
 
             // Handle Double start move
-
-            // Is the space empty?
-            if(position.getRow() == startRow && board.getPiece(doubleForward) == null){
-                addMove(position, doubleForward, moves, endRow);
+            int doubleForward = forward + step;
+            if (Bitboard.row(square) == startRow && !bits.isOccupied(doubleForward)) {
+                moves.add(PackedMove.encode(square, doubleForward, PackedMove.DOUBLE_PAWN_PUSH));
             }
         }
 
         // Handle Capture moves
-        int[] directions = {-1,1};
-
-        ChessPosition left = new ChessPosition(row + direction, col - 1);
-        ChessPosition right = new ChessPosition(row + direction, col + 1);
-
-        for(int direct: directions){
-            ChessPosition myPosition;
-            if(direct == -1){
-                myPosition = left;
-            }
-            else{
-                myPosition = right;
-            }
-
-            // Check to see if myPosition is out of bounds
-            if(myPosition.getRow() < 1 || myPosition.getRow() > 8 || myPosition.getColumn() < 1 || myPosition.getColumn() > 8){
-                break;
-            }
-
-            // Is the space occupied?
-            if(board.getPiece(myPosition) != null){
-                // Is it an enemy piece?
-                if(board.getPiece(myPosition).getTeamColor() != board.getPiece(position).getTeamColor()){
-                    addMove(position, myPosition, moves, endRow);
-                }
-            }
+        long captures = Attacks.pawn(myColor, square) & bits.team(isWhite ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        while (captures != 0) {
+            int target = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPackedMove(square, target, PackedMove.CAPTURE, moves);
         }
-
-
-
-        return moves;
     }
 
-    private void addMove(ChessPosition position, ChessPosition newPosition, Collection<ChessMove> moves, int endRow){
-        if(newPosition.getRow() == endRow){
-            moves.add(new ChessMove(position, newPosition, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(position, newPosition, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(position, newPosition, ChessPiece.PieceType.KNIGHT));
-            moves.add(new ChessMove(position, newPosition, ChessPiece.PieceType.ROOK));
+    private void addPackedMove(int square, int target, int flags, MoveList moves) {
+        int row = Bitboard.row(target);
+        if (row == 1 || row == 8) {
+            moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.QUEEN, flags));
+            moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.BISHOP, flags));
+            moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.KNIGHT, flags));
+            moves.add(PackedMove.encode(square, target, ChessPiece.PieceType.ROOK, flags));
         }
         else{
-            moves.add(new ChessMove(position, newPosition, null));
+            moves.add(PackedMove.encode(square, target, flags));
         }
     }
 }
@@ -1,20 +1,17 @@
 package chess.moves;
 
+import chess.Attacks;
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import chess.MoveList;
 
 public class RookMoves extends BaseMoves{
+    public static final RookMoves INSTANCE = new RookMoves();
+
+    private RookMoves() {
+    }
 
     @Override
-    public Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int[][] directions = {{1,0}, {-1,0}, {0,1}, {0,-1}};
-        super.calculateBaseMoves(board, position, moves, directions, true);
-        return moves;
+    public void addMoves(ChessBoard board, int square, MoveList moves) {
+        addTargetMoves(board, square, Attacks.rook(square, board.getBitboard().occupied()), moves);
     }
 }
@@ -0,0 +1,174 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"), which
+ * checks the move generator against known counts and measures its throughput.
+ * <p>
+ * Usage: {@code Perft [--depth N] [--position NAME | --fen "FEN"] [--parallel] [--divide]}
+ */
+public class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts leaf nodes on a single thread
+     *
+     * @param game  the position to count from; it is left unchanged
+     * @param depth how many plies to search
+     * @return the number of leaf nodes at that depth
+     */
+    public static long perft(ChessGame game, int depth) {
+        // One reusable move list per ply keeps the count allocation-free
+        MoveList[] moveLists = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return count(game, depth, moveLists);
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth - 1];
+        moves.clear();
+        game.validMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(game, depth - 1, moveLists);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaf nodes below each root move, in generator order
+     *
+     * @param game     the position to count from; it is left unchanged
+     * @param depth    how many plies to search, including the root move
+     * @param parallel whether to count each root move on its own thread and copy of the game
+     * @return the leaf node count for each root move
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth, boolean parallel) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        List<ChessMove> moves = new ArrayList<>(game.teamValidMoves(game.getTeamTurn()));
+        if (depth < 1 || moves.isEmpty()) {
+            return counts;
+        }
+
+        if (!parallel) {
+            for (ChessMove move : moves) {
+                game.doMove(move);
+                counts.put(move, perft(game, depth - 1));
+                game.undoMove();
+            }
+            return counts;
+        }
+
+        // One thread per root move, each with its own copy of the game
+        ExecutorService executor = Executors.newFixedThreadPool(moves.size());
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (ChessMove move : moves) {
+                ChessGame copy = new ChessGame(game);
+                futures.add(executor.submit(() -> {
+                    copy.doMove(move);
+                    return perft(copy, depth - 1);
+                }));
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                counts.put(moves.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft failed: " + e.getCause(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts leaf nodes, optionally with one thread per root move
+     */
+    public static long perft(ChessGame game, int depth, boolean parallel) {
+        if (!parallel || depth < 2) {
+            return perft(game, depth);
+        }
+        long nodes = 0;
+        for (long count : divide(game, depth, true).values()) {
+            nodes += count;
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        int depth = 4;
+        String fen = null;
+        PerftPosition position = PerftPosition.START;
+        boolean parallel = false;
+        boolean showDivide = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--position" -> position = PerftPosition.valueOf(args[++i].toUpperCase());
+                case "--fen" -> fen = args[++i];
+                case "--parallel" -> parallel = true;
+                case "--divide" -> showDivide = true;
+                default -> {
+                    System.err.println("Usage: Perft [--depth N] [--position NAME | --fen \"FEN\"] [--parallel] [--divide]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        ChessGame game = Fen.toGame(fen != null ? fen : position.fen());
+        System.out.println("Position: " + Fen.fromGame(game));
+
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes;
+            if (showDivide && d == depth) {
+                nodes = 0;
+                for (Map.Entry<ChessMove, Long> entry : divide(game, d, parallel).entrySet()) {
+                    System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+                    nodes += entry.getValue();
+                }
+            } else {
+                nodes = perft(game, d, parallel);
+            }
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+            String check = "";
+            if (fen == null && d <= position.maxDepth()) {
+                check = nodes == position.expectedNodes(d) ? " OK" : " MISMATCH (expected " + position.expectedNodes(d) + ")";
+            }
+            System.out.printf("depth %d: %,d nodes in %,d ms (%,d nodes/s)%s%n", d, nodes,
+                    elapsedNanos / 1_000_000, nodes * 1_000_000_000L / elapsedNanos, check);
+        }
+    }
+}
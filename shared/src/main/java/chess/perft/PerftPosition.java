@@ -0,0 +1,46 @@
+package chess.perft;
+
+import chess.Fen;
+
+/**
+ * Standard perft reference positions with their published leaf node counts,
+ * where nodeCounts[d - 1] is the count at depth d.
+ */
+public enum PerftPosition {
+    START(Fen.START_POSITION,
+            20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6L, 264L, 9_467L, 422_333L, 15_833_292L),
+    TALKCHESS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L);
+
+    private final String fen;
+    private final long[] nodeCounts;
+
+    PerftPosition(String fen, long... nodeCounts) {
+        this.fen = fen;
+        this.nodeCounts = nodeCounts;
+    }
+
+    public String fen() {
+        return fen;
+    }
+
+    /**
+     * @return the deepest depth with a known node count
+     */
+    public int maxDepth() {
+        return nodeCounts.length;
+    }
+
+    /**
+     * @return the known leaf node count at this depth
+     */
+    public long expectedNodes(int depth) {
+        return nodeCounts[depth - 1];
+    }
+}
@@ -0,0 +1,7 @@
+package model;
+
+/**
+ * A game as the lobby lists it: who is playing, without the game itself
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {
+}
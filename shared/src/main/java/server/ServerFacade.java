@@ -10,13 +10,17 @@ import model.User;
 
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ServerFacade {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
     private final String serverUrl;
     private static final Logger LOGGER = LoggerManager.getLogger(ServerFacade.class.getName());
 
@@ -114,12 +118,76 @@ public class ServerFacade {
     }
 
 
+    /**
+     * One page of the lobby list
+     *
+     * @param games     the games on this page, without their ChessGame
+     * @param nextAfter the after to pass for the next page, or null if this is the last
+     */
+    public record GamePage(Game[] games, Integer nextAfter) {
+    }
+
+    /**
+     * Lists the first page of games
+     */
     public Game[] listGames(String authToken) throws ResponseException {
+        return listGames(authToken, null, null, false).games();
+    }
+
+    /**
+     * Lists one page of games, so only the page being shown is fetched
+     *
+     * @param after         the nextAfter of the previous page, or null for the first page
+     * @param limit         how many games to list, or null for DEFAULT_PAGE_SIZE
+     * @param openSeatsOnly list only games with a seat free
+     */
+    public GamePage listGames(String authToken, Integer after, Integer limit, boolean openSeatsOnly) throws ResponseException {
         if (authToken == null || authToken.isEmpty()) {
             throw new IllegalArgumentException("Auth token cannot be null or empty.");
         }
 
-        var path = "/game";
+        List<String> params = new ArrayList<>();
+        if (after != null) {
+            params.add("after=" + after);
+        }
+        // Always sent, as GET /game with no paging parameters lists every game
+        params.add("limit=" + (limit == null ? DEFAULT_PAGE_SIZE : limit));
+        if (openSeatsOnly) {
+            params.add("open=true");
+        }
+        var path = "/game?" + String.join("&", params);
+        ListGamesResponse response = listGamesPage(path, authToken);
+        return new GamePage(toGames(response), response.getNextAfter());
+    }
+
+    /**
+     * Finds a game by name, ignoring case, without listing every game
+     *
+     * @return the first game with that name, without its ChessGame, or null if there is none
+     */
+    public Game findGameByName(String gameName, String authToken) throws ResponseException {
+        if (gameName == null || gameName.isBlank()) {
+            throw new IllegalArgumentException("Game name cannot be null or empty.");
+        }
+        if (authToken == null || authToken.isEmpty()) {
+            throw new IllegalArgumentException("Auth token cannot be null or empty.");
+        }
+
+        var path = "/game?name=" + URLEncoder.encode(gameName, StandardCharsets.UTF_8);
+        Game[] games = toGames(listGamesPage(path, authToken));
+        return games.length == 0 ? null : games[0];
+    }
+
+    // Map GameEntry[] to Game[] for client-side use; the list leaves out the ChessGame,
+    // which arrives with LOAD_GAME once connected
+    private static Game[] toGames(ListGamesResponse response) {
+        return Arrays.stream(response.getGames())
+                .map(entry -> new Game(entry.getGameID(), entry.getWhiteUsername(), entry.getBlackUsername(),
+                        entry.getGameName(), entry.getGame()))
+                .toArray(Game[]::new);
+    }
+
+    private ListGamesResponse listGamesPage(String path, String authToken) throws ResponseException {
         try {
             // Construct the URL and open a connection
             HttpURLConnection http = (HttpURLConnection) new URL(serverUrl + path).openConnection();
@@ -135,12 +203,7 @@ public class ServerFacade {
                 if (response == null || response.getGames() == null) {
                     throw new ResponseException(500, "Failed to parse games from server response.");
                 }
-
-                // Map GameEntry[] to Game[] for client-side use
-                return Arrays.stream(response.getGames())
-                        .map(entry -> new Game(entry.getGameID(), entry.getWhiteUsername(), entry.getBlackUsername(),
-                                entry.getGameName(), entry.getGame()))
-                        .toArray(Game[]::new);
+                return response;
             } else {
                 throw new ResponseException(http.getResponseCode(), "Failed to list games");
             }
@@ -152,10 +215,15 @@ public class ServerFacade {
 
     private static class ListGamesResponse {
         private GameEntry[] games;
+        private Integer nextAfter;
 
         public GameEntry[] getGames() {
             return games;
         }
+
+        public Integer getNextAfter() {
+            return nextAfter;
+        }
     }
 
     private static class GameEntry {
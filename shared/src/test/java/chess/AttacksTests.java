@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class AttacksTests {
+
+    @Test
+    @DisplayName("Jump Tables")
+    public void jumpTables() {
+        Assertions.assertEquals(2, Long.bitCount(Attacks.knight(Bitboard.square(1, 1))));
+        Assertions.assertEquals(8, Long.bitCount(Attacks.knight(Bitboard.square(4, 4))));
+        Assertions.assertEquals(3, Long.bitCount(Attacks.king(Bitboard.square(8, 8))));
+        Assertions.assertEquals(1L << Bitboard.square(3, 2), Attacks.pawn(ChessGame.TeamColor.WHITE, Bitboard.square(2, 1)));
+    }
+
+    @Test
+    @DisplayName("Sliders Stop At Blockers")
+    public void slidersStopAtBlockers() {
+        int rook = Bitboard.square(1, 1);
+        long blockers = (1L << Bitboard.square(4, 1)) | (1L << Bitboard.square(1, 3));
+        // a2, a3, a4 up the file and b1, c1 along the rank
+        Assertions.assertEquals(5, Long.bitCount(Attacks.rook(rook, blockers)));
+        Assertions.assertEquals(14, Long.bitCount(Attacks.rook(rook, 0L)));
+        Assertions.assertEquals(13, Long.bitCount(Attacks.bishop(Bitboard.square(4, 4), 0L)));
+    }
+
+    @Test
+    @DisplayName("Magic Lookups Match Ray Walking")
+    public void magicMatchesRays() {
+        Random random = new Random(7);
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 200; i++) {
+                long occupied = random.nextLong() & random.nextLong();
+                Assertions.assertEquals(Attacks.slidingRook(square, occupied), Attacks.rook(square, occupied));
+                Assertions.assertEquals(Attacks.slidingBishop(square, occupied), Attacks.bishop(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Square Attacked Matches Check")
+    public void squareAttacked() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Bitboard bits = board.getBitboard();
+
+        Assertions.assertTrue(Attacks.isSquareAttacked(bits, Bitboard.square(1, 5), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(Attacks.isSquareAttacked(bits, Bitboard.square(2, 4), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(Attacks.isSquareAttacked(bits, Bitboard.square(2, 3), ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(4, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertFalse(Attacks.isSquareAttacked(bits, Bitboard.square(1, 5), ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,54 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BitboardTests {
+
+    @Test
+    @DisplayName("Reset Board Fills Bitboards")
+    public void resetBoardOccupancy() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Bitboard bits = board.getBitboard();
+
+        Assertions.assertEquals(0x000000000000FFFFL, bits.team(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0xFFFF000000000000L, bits.team(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0x000000000000FF00L, bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(1L << Bitboard.square(8, 5), bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    @DisplayName("Add Piece Keeps Bitboards In Sync")
+    public void addPieceReplacesAndClears() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition position = new ChessPosition(4, 4);
+        int square = Bitboard.square(position);
+
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Bitboard bits = board.getBitboard();
+        Assertions.assertEquals(0L, bits.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(1L << square, bits.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(0L, bits.team(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(position, null);
+        Assertions.assertEquals(0L, bits.occupied());
+        Assertions.assertNull(board.getPiece(position));
+    }
+
+    @Test
+    @DisplayName("Bitboards Rebuilt After Deserialization")
+    public void gsonRoundTrip() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.getBitboard().occupied(), copy.getBitboard().occupied());
+        Assertions.assertEquals(board.getBitboard().pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                copy.getBitboard().pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+    }
+}
@@ -0,0 +1,30 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Shared Positions")
+    public void sharedPositions() {
+        Assertions.assertSame(ChessPosition.of(4, 5), ChessPosition.of(4, 5));
+        Assertions.assertSame(ChessPosition.of(8, 8), Bitboard.position(63));
+        Assertions.assertEquals(new ChessPosition(4, 5), ChessPosition.of(4, 5));
+        Assertions.assertEquals(new ChessPosition(4, 5).hashCode(), ChessPosition.of(4, 5).hashCode());
+        Assertions.assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+    }
+
+    @Test
+    @DisplayName("Shared Pieces")
+    public void sharedPieces() {
+        ChessPiece knight = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertSame(knight, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT), knight);
+
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertSame(board.getPiece(ChessPosition.of(1, 2)), board.getPiece(ChessPosition.of(1, 7)));
+    }
+}
@@ -0,0 +1,64 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameCodecTests {
+
+    private static ChessGame roundTrip(ChessGame game) {
+        byte[] bytes = GameCodec.encode(game);
+        Assertions.assertEquals(GameCodec.LENGTH, bytes.length);
+        return GameCodec.decode(bytes);
+    }
+
+    @Test
+    @DisplayName("Start Position Round Trip")
+    public void startPosition() {
+        ChessGame game = new ChessGame();
+        ChessGame decoded = roundTrip(game);
+
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertTrue(GameCodec.LENGTH * 10 < new Gson().toJson(game).length(),
+                "The encoding should be far smaller than JSON");
+    }
+
+    @Test
+    @DisplayName("Side, Castling, En Passant And Ply Round Trip")
+    public void gameState() throws InvalidMoveException {
+        ChessGame game = Fen.toGame("r3k2r/pp1ppppp/8/2pP4/8/8/PPP1PPPP/R3K2R w Kq c6 0 1");
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        ChessGame decoded = roundTrip(game);
+
+        Assertions.assertEquals(Fen.fromGame(game), Fen.fromGame(decoded));
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertEquals(2, decoded.getPlyCount());
+        Assertions.assertEquals(2, decoded.getFirstRecordedPly(), "Decoded games know no earlier moves");
+        Assertions.assertEquals(game.getBoard().getBitboard().occupied(), decoded.getBoard().getBitboard().occupied());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, decoded.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Finished Games Stay Finished")
+    public void gameOver() throws Exception {
+        ChessGame game = Fen.toGame("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+        game.setGameIsOver();
+        ChessGame decoded = roundTrip(game);
+
+        Assertions.assertTrue(decoded.getGameIsOver());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        Assertions.assertEquals(0, decoded.getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Rejects Bytes That Are Not A Game")
+    public void rejectsGarbage() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[3]));
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        bytes[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+    }
+}
@@ -0,0 +1,101 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MakeUndoTests {
+
+    @Test
+    @DisplayName("Undo Restores Board And State")
+    public void undoRestoresEverything() {
+        ChessGame game = new ChessGame();
+        ChessGame original = new ChessGame();
+
+        game.doMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(new ChessPosition(3, 5), game.getEnPassantSquare());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+
+        game.doMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 5), null));
+        Assertions.assertEquals(ChessGame.WHITE_KING_SIDE | ChessGame.WHITE_QUEEN_SIDE, game.getCastlingRights());
+
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(original, game);
+        Assertions.assertEquals(original.getBoard().getBitboard().occupied(), game.getBoard().getBitboard().occupied());
+        Assertions.assertEquals(0, game.getHistorySize());
+    }
+
+    @Test
+    @DisplayName("Undo Castling And En Passant")
+    public void undoSpecialMoves() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(5, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(7, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.doMove(new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3), null));
+        ChessBoard afterSetup = new Gson().fromJson(new Gson().toJson(game.getBoard()), ChessBoard.class);
+
+        game.doMove(new ChessMove(new ChessPosition(5, 2), new ChessPosition(6, 3), null));
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 3)));
+        game.undoMove();
+        Assertions.assertNotNull(game.getBoard().getPiece(new ChessPosition(5, 3)));
+
+        game.doMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, game.getBoard().getPiece(new ChessPosition(1, 6)).getPieceType());
+        game.undoMove();
+
+        Assertions.assertEquals(afterSetup, game.getBoard());
+        Assertions.assertEquals(new ChessPosition(6, 3), game.getEnPassantSquare());
+        Assertions.assertEquals(ChessGame.WHITE_KING_SIDE, game.getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Moves Are Recorded By Ply")
+    public void moveRecord() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove e5 = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        game.makeMove(e4);
+        game.makeMove(e5);
+
+        Assertions.assertEquals(2, game.getPlyCount());
+        Assertions.assertEquals(0, game.getFirstRecordedPly());
+        Assertions.assertEquals(e5, PackedMove.toChessMove(game.getRecordedMove(1)));
+
+        ChessGame copy = new ChessGame(game);
+        Assertions.assertEquals(e4, PackedMove.toChessMove(copy.getRecordedMove(0)), "Copies keep the record");
+
+        game.undoMove();
+        Assertions.assertEquals(1, game.getPlyCount());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> game.getRecordedMove(1));
+
+        ChessGame loaded = new Gson().fromJson(new Gson().toJson(copy), ChessGame.class);
+        Assertions.assertEquals(2, loaded.getPlyCount(), "The ply count is saved");
+        Assertions.assertEquals(2, loaded.getFirstRecordedPly(), "The moves are not saved");
+    }
+
+    @Test
+    @DisplayName("Old Saves Get Castling Rights From The Board")
+    public void oldSavesWithoutCastlingRights() {
+        // The h1 rook has moved to g1, so white can only castle queen side
+        ChessGame game = Fen.toGame("r3k2r/8/8/8/8/8/8/R3K1R1 w Qkq - 0 1");
+        JsonObject json = new Gson().toJsonTree(game).getAsJsonObject();
+        json.remove("castlingRights");
+
+        ChessGame loaded = new Gson().fromJson(json.toString(), ChessGame.class);
+        Assertions.assertEquals(ChessGame.WHITE_QUEEN_SIDE | ChessGame.BLACK_KING_SIDE | ChessGame.BLACK_QUEEN_SIDE,
+                loaded.getCastlingRights());
+
+        game.setCastlingRights(0);
+        Assertions.assertEquals(0, new Gson().fromJson(new Gson().toJson(game), ChessGame.class).getCastlingRights(),
+                "Saved rights are kept as they are");
+    }
+}
@@ -0,0 +1,38 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+public class PackedMoveTests {
+
+    @Test
+    @DisplayName("Encode And Decode")
+    public void encodeDecode() {
+        int move = PackedMove.encode(Bitboard.square(7, 2), Bitboard.square(8, 1), ChessPiece.PieceType.KNIGHT,
+                PackedMove.CAPTURE);
+        Assertions.assertEquals(Bitboard.square(7, 2), PackedMove.from(move));
+        Assertions.assertEquals(Bitboard.square(8, 1), PackedMove.to(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, PackedMove.promotion(move));
+        Assertions.assertTrue(PackedMove.isCapture(move));
+
+        ChessMove chessMove = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals(chessMove, PackedMove.toChessMove(move));
+        Assertions.assertEquals(chessMove, PackedMove.toChessMove(PackedMove.fromChessMove(chessMove)));
+        Assertions.assertNull(PackedMove.promotion(PackedMove.encode(0, 8, 0)));
+    }
+
+    @Test
+    @DisplayName("Packed Moves Match ChessMove Generation")
+    public void packedMatchesTeamMoves() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MoveList moves = new MoveList(4);
+        game.validMoves(moves);
+
+        Assertions.assertEquals(48, moves.size());
+        Assertions.assertEquals(new HashSet<>(game.teamValidMoves(ChessGame.TeamColor.WHITE)),
+                new HashSet<>(moves.toChessMoves()));
+    }
+}
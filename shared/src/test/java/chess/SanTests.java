@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SanTests {
+
+    private static ChessMove san(String fen, String san) {
+        return PackedMove.toChessMove(San.toMove(Fen.toGame(fen), san));
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), promotion);
+    }
+
+    @Test
+    @DisplayName("Pawn And Piece Moves")
+    public void simpleMoves() {
+        Assertions.assertEquals(move(2, 5, 4, 5, null), san(Fen.START_POSITION, "e4"));
+        Assertions.assertEquals(move(1, 7, 3, 6, null), san(Fen.START_POSITION, "Nf3"));
+        Assertions.assertEquals(move(1, 2, 3, 3, null), san(Fen.START_POSITION, "Nc3!?"));
+    }
+
+    @Test
+    @DisplayName("Captures And Disambiguation")
+    public void capturesAndDisambiguation() {
+        // Knights on b1 and f3 can both reach d2; rooks on a1 and a5 can both reach a3
+        String fen = "4k3/8/8/R2p4/4P3/5N2/8/RN2K3 w - - 0 1";
+        Assertions.assertEquals(move(4, 5, 5, 4, null), san(fen, "exd5"));
+        Assertions.assertEquals(move(1, 2, 2, 4, null), san(fen, "Nbd2"));
+        Assertions.assertEquals(move(3, 6, 2, 4, null), san(fen, "Nfd2"));
+        Assertions.assertEquals(move(5, 1, 3, 1, null), san(fen, "R5a3"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(fen, "Nd2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(fen, "Ra3"));
+    }
+
+    @Test
+    @DisplayName("Castling, Promotion And En Passant")
+    public void specialMoves() {
+        Assertions.assertEquals(move(1, 5, 1, 7, null), san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "O-O"));
+        Assertions.assertEquals(move(8, 5, 8, 3, null), san("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "O-O-O+"));
+        Assertions.assertEquals(move(7, 1, 8, 1, ChessPiece.PieceType.QUEEN), san("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a8=Q+"));
+        Assertions.assertEquals(move(5, 5, 6, 4, null), san("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "exd6"));
+    }
+
+    @Test
+    @DisplayName("Invalid Moves Are Rejected")
+    public void invalidMoves() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(Fen.START_POSITION, "e5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(Fen.START_POSITION, "O-O"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(Fen.START_POSITION, "Zf3"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san(Fen.START_POSITION, "x"));
+    }
+}
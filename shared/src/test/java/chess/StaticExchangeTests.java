@@ -0,0 +1,56 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    private static int see(String fen, int fromRow, int fromCol, int toRow, int toCol) {
+        ChessGame game = Fen.toGame(fen);
+        return game.getBoard().staticExchange(new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null));
+    }
+
+    @Test
+    @DisplayName("Undefended And Defended Captures")
+    public void simpleCaptures() {
+        // Rook takes a free pawn
+        Assertions.assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", 1, 5, 5, 5));
+        // Queen takes a pawn defended by a pawn
+        Assertions.assertEquals(100 - 900, see("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1", 1, 5, 5, 5));
+        // Knight takes a defended knight: an even trade
+        Assertions.assertEquals(0, see("4k3/3p4/4n3/8/3N4/8/8/4K3 w - - 0 1", 4, 4, 6, 5));
+    }
+
+    @Test
+    @DisplayName("X-Ray Attackers Join In")
+    public void xRays() {
+        // Nd3xe5 against pawn e5 defended by Nd7 and Bf6, with white's rook and queen lined up behind on the e-file
+        int score = see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", 3, 4, 5, 5);
+        Assertions.assertEquals(-220, score);
+
+        // Two rooks lined up beat one defender
+        Assertions.assertEquals(100, see("4k3/8/8/3p4/8/3R4/3R4/4K2r w - - 0 1", 3, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("King Will Not Recapture Into Attack")
+    public void kingRecapture() {
+        // The black king cannot take back on e7 because the bishop still covers it
+        Assertions.assertEquals(500, see("8/4rk2/8/8/1B6/8/8/4RK2 w - - 0 1", 1, 5, 7, 5));
+        // Without the bishop it can
+        Assertions.assertEquals(0, see("8/4rk2/8/8/8/8/8/4RK2 w - - 0 1", 1, 5, 7, 5));
+    }
+
+    @Test
+    @DisplayName("En Passant And Promotion")
+    public void specialMoves() {
+        ChessGame game = Fen.toGame("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        int enPassant = PackedMove.encode(Bitboard.square(5, 5), Bitboard.square(6, 4), PackedMove.EN_PASSANT | PackedMove.CAPTURE);
+        Assertions.assertEquals(100, StaticExchange.evaluate(game.getBoard(), enPassant));
+
+        ChessGame promote = Fen.toGame("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        int toQueen = PackedMove.encode(Bitboard.square(7, 2), Bitboard.square(8, 2), ChessPiece.PieceType.QUEEN, 0);
+        Assertions.assertEquals(800, StaticExchange.evaluate(promote.getBoard(), toQueen));
+    }
+}
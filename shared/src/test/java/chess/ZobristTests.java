@@ -0,0 +1,66 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null);
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches Fresh Position")
+    public void incrementalMatchesFresh() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            Assertions.assertEquals(Fen.toGame(Fen.fromGame(game)).getZobristKey(), game.getZobristKey(),
+                    PackedMove.toChessMove(moves.get(i)).toString());
+            game.undoMove();
+        }
+        Assertions.assertEquals(Fen.toGame(Fen.fromGame(game)).getZobristKey(), game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositions() {
+        ChessGame first = new ChessGame();
+        first.doMove(move(1, 7, 3, 6));
+        first.doMove(move(8, 7, 6, 6));
+        first.doMove(move(1, 2, 3, 3));
+
+        ChessGame second = new ChessGame();
+        second.doMove(move(1, 2, 3, 3));
+        second.doMove(move(8, 7, 6, 6));
+        second.doMove(move(1, 7, 3, 6));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), first.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Turn, Castling And En Passant Change The Key")
+    public void stateChangesKey() {
+        ChessGame game = new ChessGame();
+        long start = game.getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start, game.getZobristKey());
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.setCastlingRights(ChessGame.WHITE_KING_SIDE);
+        Assertions.assertNotEquals(start, game.getZobristKey());
+
+        // A double move with no pawn able to capture en passant does not change the key
+        ChessGame doubled = Fen.toGame("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        doubled.doMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(Fen.toGame("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1").getZobristKey(), doubled.getZobristKey());
+
+        ChessGame capturable = Fen.toGame("4k3/8/8/8/5p2/8/4P3/4K3 w - - 0 1");
+        capturable.doMove(move(2, 5, 4, 5));
+        Assertions.assertNotEquals(Fen.toGame("4k3/8/8/8/4Pp2/8/8/4K3 b - - 0 1").getZobristKey(), capturable.getZobristKey());
+    }
+}
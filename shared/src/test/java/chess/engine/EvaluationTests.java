@@ -0,0 +1,56 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Start Position Is Level")
+    public void startIsLevel() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, Evaluation.evaluate(game));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(0, Evaluation.evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Square Bonuses Mirror For Black")
+    public void mirrored() {
+        // White knight in the centre, black knight on its home square
+        ChessGame game = Fen.toGame("1n2k3/8/8/8/3N4/8/8/4K3 w - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(game) > 0);
+        ChessGame mirror = Fen.toGame("4k3/8/8/3n4/8/8/8/1N2K3 b - - 0 1");
+        Assertions.assertEquals(Evaluation.evaluate(game), Evaluation.evaluate(mirror));
+    }
+
+    @Test
+    @DisplayName("Move Deltas Match A Full Rescore")
+    public void deltasMatchRescore() {
+        // Every reference position covers castling, en passant and promotions between them
+        for (PerftPosition position : PerftPosition.values()) {
+            ChessGame game = Fen.toGame(position.fen());
+            checkDeltas(game, Evaluation.whiteScore(game.getBoard()), 3);
+        }
+    }
+
+    private static void checkDeltas(ChessGame game, int whiteScore, int depth) {
+        Assertions.assertEquals(Evaluation.whiteScore(game.getBoard()), whiteScore, Fen.fromGame(game));
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int delta = Evaluation.moveDelta(game.getBoard(), moves.get(i));
+            game.doMove(moves.get(i));
+            checkDeltas(game, whiteScore + delta, depth - 1);
+            game.undoMove();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package chess.engine;
+
+import chess.Bitboard;
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrderingTests {
+
+    private static int find(MoveList moves, int fromRow, int fromCol, int toRow, int toCol) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.from(move) == Bitboard.square(fromRow, fromCol) && PackedMove.to(move) == Bitboard.square(toRow, toCol)) {
+                return move;
+            }
+        }
+        throw new AssertionError("No such move");
+    }
+
+    private static int[] ordered(MoveOrdering ordering, ChessGame game, MoveList moves, int hashMove) {
+        ordering.score(game.getBoard(), moves, hashMove, 0);
+        int[] order = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            order[i] = ordering.next(moves, i, 0);
+        }
+        return order;
+    }
+
+    @Test
+    @DisplayName("Hash Move, Then Captures By Victim And Attacker")
+    public void capturesByMvvLva() {
+        // The white queen and pawn can both take the black queen; the pawn can also take a knight
+        ChessGame game = Fen.toGame("4k3/8/8/2n1q3/3P4/8/8/4QK2 w - - 0 1");
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        int pawnTakesQueen = find(moves, 4, 4, 5, 5);
+        int queenTakesQueen = find(moves, 1, 5, 5, 5);
+        int pawnTakesKnight = find(moves, 4, 4, 5, 3);
+        int quiet = find(moves, 1, 6, 2, 7);
+
+        int[] order = ordered(new MoveOrdering(), game, moves, quiet);
+        Assertions.assertEquals(quiet, order[0]);
+        Assertions.assertEquals(pawnTakesQueen, order[1]);
+        Assertions.assertEquals(queenTakesQueen, order[2]);
+        Assertions.assertEquals(pawnTakesKnight, order[3]);
+    }
+
+    @Test
+    @DisplayName("Killers And History Order Quiet Moves")
+    public void killersAndHistory() {
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        game.validMoves(moves);
+        int knight = find(moves, 1, 7, 3, 6);
+        int pawn = find(moves, 2, 5, 4, 5);
+        int rookPawn = find(moves, 2, 1, 3, 1);
+
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.addCutoff(ChessGame.TeamColor.WHITE, rookPawn, 5, 6);
+        ordering.addCutoff(ChessGame.TeamColor.WHITE, pawn, 0, 1);
+        ordering.addCutoff(ChessGame.TeamColor.WHITE, knight, 0, 1);
+
+        // Killers at ply 0 (latest first), then the history score learned at ply 5
+        int[] order = ordered(ordering, game, moves, 0);
+        Assertions.assertEquals(knight, order[0]);
+        Assertions.assertEquals(pawn, order[1]);
+        Assertions.assertEquals(rookPawn, order[2]);
+        Assertions.assertEquals(20, order.length);
+
+        ordering.newSearch();
+        Assertions.assertNotEquals(knight, ordered(ordering, game, moves, 0)[0]);
+    }
+}
@@ -0,0 +1,104 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.PackedMove;
+import chess.San;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class OpeningBookTests {
+
+    private static final String PGN = """
+            [Event "One"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 {main line} Nc6 (2... d6 3. d4) 3. Bb5 a6 1-0
+
+            [Event "Two"]
+            [Result "1/2-1/2"]
+
+            1.e4 e5 2.Nf3 Nc6 3.Bc4 $1 Bc5 1/2-1/2
+
+            [Event "Three"]
+            [Result "0-1"]
+
+            1. d4 d5 2. c4 e6 0-1
+            """;
+
+    private static OpeningBook build(Path dir, int minCount) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_PLIES, minCount);
+        builder.addPgn(new StringReader(PGN));
+        Assertions.assertEquals(3, builder.getGameCount());
+        Assertions.assertEquals(0, builder.getSkippedGameCount());
+        Path file = dir.resolve("book.bin");
+        builder.write(file);
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    @DisplayName("Moves Are Weighted By How Often They Were Played")
+    public void weightedMoves(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 1);
+        ChessGame game = new ChessGame();
+
+        List<OpeningBook.Entry> entries = book.entries(game.getZobristKey());
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals(San.toMove(game, "e4"), entries.get(0).move(), "The most played move comes first");
+        Assertions.assertEquals(2, entries.get(0).weight());
+        Assertions.assertEquals(San.toMove(game, "d4"), entries.get(1).move());
+        Assertions.assertEquals(1, entries.get(1).weight());
+
+        // Moves inside comments and variations are not in the book
+        game.doMove(San.toMove(game, "e4"));
+        game.doMove(San.toMove(game, "e5"));
+        game.doMove(San.toMove(game, "Nf3"));
+        Assertions.assertEquals(1, book.entries(game.getZobristKey()).size());
+    }
+
+    @Test
+    @DisplayName("Rare Moves Are Left Out")
+    public void minimumCount(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 2);
+        ChessGame game = new ChessGame();
+
+        Assertions.assertEquals(1, book.entries(game.getZobristKey()).size());
+        ChessMove move = book.bookMove(game, new SplittableRandom(1));
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null), move);
+
+        // Out of the book after a move no game played
+        game.doMove(San.toMove(game, "a3"));
+        Assertions.assertTrue(book.entries(game.getZobristKey()).isEmpty());
+        Assertions.assertNull(book.bookMove(game, new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("Search Plays From The Book")
+    public void searchUsesBook(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 2);
+        Search search = new Search();
+        search.setOpeningBook(book);
+
+        SearchResult result = search.search(new ChessGame(), SearchLimits.depth(3));
+        Assertions.assertEquals(0, result.depth(), "A book move needs no search");
+        Assertions.assertEquals(PackedMove.toChessMove(San.toMove(new ChessGame(), "e4")), result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Files That Are Not Books Are Rejected")
+    public void invalidFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("not-a-book.bin");
+        Files.write(file, new byte[32]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
@@ -0,0 +1,41 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds The Same Mate As One Thread")
+    public void findsMate() {
+        ChessGame game = Fen.toGame("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(4))) {
+            SearchResult result = search.search(game, SearchLimits.depth(5));
+            Assertions.assertEquals(Search.MATE - 3, result.score());
+            Assertions.assertEquals(4, search.getThreadCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Stops Helpers With The Calling Thread")
+    public void stopsWithMainThread() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        String before = Fen.fromGame(game);
+        try (ParallelSearch search = new ParallelSearch(3, new TranspositionTable(4))) {
+            long start = System.currentTimeMillis();
+            SearchResult timed = search.search(game, SearchLimits.time(200));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 2000);
+            Assertions.assertNotNull(timed.bestMove());
+
+            // The pool is reused for the next search
+            SearchResult byDepth = search.search(game, SearchLimits.depth(3));
+            Assertions.assertTrue(byDepth.depth() >= 3);
+            Assertions.assertNotNull(byDepth.bestMove());
+        }
+        Assertions.assertEquals(before, Fen.fromGame(game));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0, new TranspositionTable(1)));
+    }
+}
@@ -0,0 +1,94 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null);
+    }
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        // Back rank mate with Ra8
+        ChessGame game = Fen.toGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(move(1, 1, 8, 1), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        // Rook ladder: one rook cuts the king off on the seventh rank, the other mates
+        ChessGame game = Fen.toGame("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(5));
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Search.MATE - 3, result.score());
+        Assertions.assertEquals(3, result.principalVariation().size());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void winsMaterial() {
+        ChessGame game = Fen.toGame("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(move(2, 4, 5, 4), result.bestMove());
+        Assertions.assertTrue(result.score() > 300);
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+    }
+
+    @Test
+    @DisplayName("No Moves")
+    public void noMoves() {
+        SearchResult stalemate = new Search().search(Fen.toGame("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(stalemate.bestMove());
+        Assertions.assertEquals(0, stalemate.score());
+
+        SearchResult mated = new Search().search(Fen.toGame("7k/6Q1/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(mated.bestMove());
+        Assertions.assertEquals(-Search.MATE, mated.score());
+    }
+
+    @Test
+    @DisplayName("Respects Limits")
+    public void respectsLimits() {
+        ChessGame game = new ChessGame();
+        String before = Fen.fromGame(game);
+
+        SearchResult byDepth = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(3, byDepth.depth());
+        Assertions.assertNotNull(byDepth.bestMove());
+
+        SearchResult byNodes = new Search().search(game, SearchLimits.nodes(5000));
+        Assertions.assertNotNull(byNodes.bestMove());
+        Assertions.assertTrue(byNodes.nodes() <= 5000);
+
+        long start = System.currentTimeMillis();
+        SearchResult byTime = new Search().search(game, SearchLimits.time(200));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 1000);
+        Assertions.assertNotNull(byTime.bestMove());
+
+        Assertions.assertEquals(before, Fen.fromGame(game));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SearchLimits.depth(0));
+    }
+
+    @Test
+    @DisplayName("Stopped In The First Iteration")
+    public void stoppedInFirstIteration() {
+        ChessGame game = new ChessGame();
+
+        SearchResult result = new Search().search(game, SearchLimits.nodes(1));
+        Assertions.assertEquals(0, result.depth());
+        Assertions.assertTrue(result.nodes() < 64);
+        Assertions.assertTrue(game.teamValidMoves(game.getTeamTurn()).contains(result.bestMove()));
+    }
+}
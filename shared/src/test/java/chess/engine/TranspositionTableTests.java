@@ -0,0 +1,80 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store And Probe")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(65536, table.capacity());
+        long key = 0x123456789ABCDEF0L;
+        Assertions.assertEquals(0, table.probe(key));
+
+        table.store(key, 0x4321, -250, 7, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(key);
+        Assertions.assertEquals(0x4321, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+
+        // Same slot, different position
+        Assertions.assertEquals(0, table.probe(key ^ (1L << 40)));
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Depth Preferred Replacement")
+    public void depthPreferred() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 42L;
+        long shallow = 42L | (1L << 50); // Same slot
+
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+        table.store(shallow, 2, 20, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(8, TranspositionTable.depth(table.probe(deep)));
+        Assertions.assertEquals(0, table.probe(shallow));
+
+        // The same position is always updated, keeping its move if the new result has none
+        table.store(deep, 0, 30, 2, TranspositionTable.UPPER_BOUND);
+        Assertions.assertEquals(1, TranspositionTable.move(table.probe(deep)));
+        Assertions.assertEquals(2, TranspositionTable.depth(table.probe(deep)));
+
+        // Entries from an earlier search give way
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+        table.newSearch();
+        table.store(shallow, 2, 20, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(shallow)));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Stored Relative To The Node")
+    public void mateScores() {
+        int mateInThreeFromRoot = Search.MATE - 5;
+        int stored = TranspositionTable.toStored(mateInThreeFromRoot, 4);
+        Assertions.assertEquals(Search.MATE - 1, stored);
+        Assertions.assertEquals(Search.MATE - 3, TranspositionTable.fromStored(stored, 2));
+        Assertions.assertEquals(-Search.MATE + 5, TranspositionTable.fromStored(TranspositionTable.toStored(-Search.MATE + 5, 4), 4));
+        Assertions.assertEquals(150, TranspositionTable.toStored(150, 9));
+    }
+
+    @Test
+    @DisplayName("Shared Table Speeds Up Repeat Search")
+    public void sharedTable() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        TranspositionTable table = new TranspositionTable(4);
+        SearchResult first = new Search(table).search(game, SearchLimits.depth(4));
+        Assertions.assertTrue(table.hashfull() > 0);
+        SearchResult second = new Search(table).search(game, SearchLimits.depth(4));
+        Assertions.assertTrue(second.nodes() < first.nodes());
+        Assertions.assertEquals(first.score(), second.score());
+    }
+}
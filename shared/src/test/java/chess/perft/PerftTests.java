@@ -0,0 +1,56 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Checks the move generator against published perft counts. Depths are kept small
+ * so the suite stays fast; run Perft from the command line to go deeper.
+ */
+public class PerftTests {
+    private static final int TEST_DEPTH = 3;
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Reference Position Node Counts")
+    public void referencePositions(PerftPosition position) {
+        ChessGame game = Fen.toGame(position.fen());
+        for (int depth = 1; depth <= TEST_DEPTH; depth++) {
+            Assertions.assertEquals(position.expectedNodes(depth), Perft.perft(game, depth),
+                    position + " perft(" + depth + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel Matches Single Thread")
+    public void parallelMatchesSerial() {
+        ChessGame game = Fen.toGame(PerftPosition.KIWIPETE.fen());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.expectedNodes(TEST_DEPTH), Perft.perft(game, TEST_DEPTH, true));
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Game Unchanged")
+    public void perftRestoresGame() {
+        ChessGame game = Fen.toGame(PerftPosition.PROMOTIONS.fen());
+        String before = Fen.fromGame(game);
+        Perft.perft(game, TEST_DEPTH);
+        Assertions.assertEquals(before, Fen.fromGame(game));
+        Assertions.assertEquals(0, game.getHistorySize());
+    }
+
+    @Test
+    @DisplayName("FEN Round Trip")
+    public void fenRoundTrip() {
+        for (PerftPosition position : PerftPosition.values()) {
+            String fen = position.fen();
+            String expected = fen.substring(0, fen.lastIndexOf(' ', fen.lastIndexOf(' ') - 1)) + " 0 1";
+            Assertions.assertEquals(expected, Fen.fromGame(Fen.toGame(fen)));
+        }
+        Assertions.assertEquals(new ChessGame().getBoard(), Fen.toGame(Fen.START_POSITION).getBoard());
+    }
+}